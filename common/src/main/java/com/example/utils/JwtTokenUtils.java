@@ -0,0 +1,101 @@
+package com.example.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// sns app, notification-gateway가 같이 사용 (common module) -> app의 model에 의존하지 않음
+public class JwtTokenUtils {
+
+    // secret key 문자열마다 HMAC Key, JwtParser를 한 번만 생성해서 재사용 (둘 다 thread-safe)
+    private final static Map<String, Key> KEYS = new ConcurrentHashMap<>();
+    private final static Map<String, JwtParser> PARSERS = new ConcurrentHashMap<>();
+
+    public static String getUserName(String token, String key){
+        return getUserName(extractClaims(token, key));
+    }
+
+    public static String getUserName(Claims claims){
+        return claims.get("username", String.class);
+    }
+
+    public static Integer getUserId(Claims claims){
+        return claims.get("userId", Integer.class);
+    }
+
+    // stateless token이 아니면 null
+    public static Long getVersion(Claims claims){
+        return claims.get("ver", Long.class);
+    }
+
+    public static String getRole(Claims claims){
+        return claims.get("role", String.class);
+    }
+
+    // userId, role이 들어있는 token -> user 조회 없이 principal 생성 가능
+    public static boolean hasPrincipal(Claims claims){
+        return claims.containsKey("userId") && claims.containsKey("role");
+    }
+
+    public static boolean isExpired(String token, String key){
+        return isExpired(extractClaims(token, key));
+    }
+
+    public static boolean isExpired(Claims claims){
+        Date expiredDate = claims.getExpiration();
+        // 만료되었다면 true
+        return expiredDate.before(new Date());
+    }
+
+    // 서명 검증은 여기서 한 번만 수행 -> 필요한 값은 반환된 claims에서 꺼내서 사용
+    public static Claims extractClaims(String token, String key){
+        return getParser(key).parseClaimsJws(token).getBody();
+    }
+
+    // key는 암호화에 사용
+    public static String generateToken(String username, String key, long expiredTimeMs){
+        Claims claims = Jwts.claims();
+
+        claims.put("username", username);
+
+        return buildToken(claims, key, expiredTimeMs);
+    }
+
+    // stateless 모드 -> 요청마다 user를 조회하지 않도록 userId, role, token version까지 넣어줌
+    public static String generateToken(String username, Integer userId, String role, String key, long expiredTimeMs, long version){
+        Claims claims = Jwts.claims();
+
+        claims.put("username", username);
+        claims.put("userId", userId);
+        claims.put("role", role);
+        claims.put("ver", version);
+
+        return buildToken(claims, key, expiredTimeMs);
+    }
+
+    private static String buildToken(Claims claims, String key, long expiredTimeMs){
+        return Jwts.builder()
+                .setClaims(claims)
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis()+expiredTimeMs))
+                .signWith(getKey(key), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static JwtParser getParser(String key){
+        return PARSERS.computeIfAbsent(key, it -> Jwts.parserBuilder().setSigningKey(getKey(it)).build());
+    }
+
+    private static Key getKey(String key){
+        return KEYS.computeIfAbsent(key, it -> Keys.hmacShaKeyFor(it.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -0,0 +1,25 @@
+-- alarm 테이블을 registered_at 기준 월별 partition 테이블로 생성
+-- 월별 partition 추가/삭제는 AlarmPartitionManager가 처리 (sns.alarm.partition.*)
+--
+-- partition 테이블 제약
+--  * 모든 unique key(PK 포함)에 partition 컬럼이 포함되어야 함 -> PK (id, registered_at)
+--  * foreign key 미지원 -> AlarmEntity의 user_id는 ConstraintMode.NO_CONSTRAINT
+--
+-- 이미 운영 중인 DB는 database/migration/alarm_partition.sql로 변환 (기존 알람의 월별 partition까지 생성)
+
+CREATE TABLE IF NOT EXISTS `alarm` (
+    id INT NOT NULL,
+    user_id INT,
+    alarm_type VARCHAR(255),
+    args JSON,
+    read_at DATETIME(6),
+    registered_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    deleted_at DATETIME(6),
+    PRIMARY KEY (id, registered_at),
+    -- 커서 조회는 (registered_at, id) 순서 -> InnoDB secondary index는 PK(id)를 뒤에 포함
+    KEY user_registered_at_idx (user_id, registered_at)
+)
+PARTITION BY RANGE COLUMNS(registered_at) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,45 @@
+-- 이미 운영 중인 alarm 테이블을 월별 partition 테이블로 변환 (database/init/alarm_partition.sql과 같은 구조)
+-- 새로 만드는 DB는 init script가 처리하므로 실행하지 않음
+--
+-- 기존 알람의 가장 오래된 달 ~ 이번 달까지 월별 partition을 바로 생성
+-- -> pmax 하나로만 변환하면 AlarmPartitionManager가 이번 달부터 분리하므로
+--    이전 달의 알람이 모두 이번 달 partition에 들어가 보관 기간이 지나도 삭제되지 않음
+-- 다음 달 이후 partition은 서버가 시작되면 AlarmPartitionManager가 pmax에서 분리
+
+-- partition 테이블은 foreign key 미지원 -> user_id foreign key 삭제 (이름은 hibernate가 생성)
+SELECT CONSTRAINT_NAME INTO @user_fk FROM information_schema.REFERENTIAL_CONSTRAINTS
+WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'alarm' LIMIT 1;
+SET @sql = IF(@user_fk IS NULL, 'DO 0', CONCAT('ALTER TABLE `alarm` DROP FOREIGN KEY `', @user_fk, '`'));
+PREPARE drop_fk_statement FROM @sql;
+EXECUTE drop_fk_statement;
+DEALLOCATE PREPARE drop_fk_statement;
+
+UPDATE `alarm` SET registered_at = NOW() WHERE registered_at IS NULL;
+
+ALTER TABLE `alarm` MODIFY registered_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY, ADD PRIMARY KEY (id, registered_at),
+    DROP INDEX user_id_idx, ADD INDEX user_registered_at_idx (user_id, registered_at);
+
+SET SESSION group_concat_max_len = 65535;
+SET @first_month = CAST(DATE_FORMAT(COALESCE((SELECT MIN(registered_at) FROM `alarm`), NOW()), '%Y-%m-01') AS DATE);
+SET @this_month = CAST(DATE_FORMAT(NOW(), '%Y-%m-01') AS DATE);
+
+-- p{yyyyMM} VALUES LESS THAN (다음 달 1일)
+SELECT GROUP_CONCAT(
+           CONCAT('PARTITION p', DATE_FORMAT(month, '%Y%m'), ' VALUES LESS THAN (''', month + INTERVAL 1 MONTH, ''')')
+           ORDER BY month SEPARATOR ', ')
+INTO @partitions
+FROM (
+    WITH RECURSIVE months(month) AS (
+        SELECT @first_month
+        UNION ALL
+        SELECT month + INTERVAL 1 MONTH FROM months WHERE month < @this_month
+    )
+    SELECT month FROM months
+) partition_months;
+
+SET @sql = CONCAT('ALTER TABLE `alarm` PARTITION BY RANGE COLUMNS(registered_at) (',
+                  @partitions, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_statement FROM @sql;
+EXECUTE partition_statement;
+DEALLOCATE PREPARE partition_statement;
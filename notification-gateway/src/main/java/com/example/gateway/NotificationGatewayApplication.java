@@ -0,0 +1,16 @@
+package com.example.gateway;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// 알람 SSE 연결만 처리하는 서버 (Reactor Netty)
+// 연결마다 servlet thread/async context를 잡지 않음 -> 대부분 idle인 연결을 서버 한 대에서 많이 유지
+// 알람 저장/전달은 app이 하고, 이 서버는 app과 같은 Redis 채널(ALARM:NODE:{nodeId})로 알람을 받아서 전송만 함
+@SpringBootApplication
+public class NotificationGatewayApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(NotificationGatewayApplication.class, args);
+	}
+
+}
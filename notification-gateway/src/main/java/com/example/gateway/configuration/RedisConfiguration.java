@@ -0,0 +1,16 @@
+package com.example.gateway.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfiguration {
+
+    // 알람 채널 구독 (connection 하나로 모든 채널 처리)
+    @Bean(destroyMethod = "destroy")
+    public ReactiveRedisMessageListenerContainer reactiveRedisMessageListenerContainer(ReactiveRedisConnectionFactory connectionFactory){
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
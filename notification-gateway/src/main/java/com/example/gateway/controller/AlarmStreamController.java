@@ -0,0 +1,88 @@
+package com.example.gateway.controller;
+
+import com.example.gateway.repository.TokenRevocationRepository;
+import com.example.gateway.service.AlarmHub;
+import com.example.utils.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// app의 /api/v1/users/alarm/subscribe 와 같은 경로 -> load balancer에서 이 경로만 gateway로 보냄
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/users")
+public class AlarmStreamController {
+
+    private final AlarmHub alarmHub;
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${jwt.secret-key}")
+    private String key;
+
+    // token -> Authorization: Bearer 또는 token parameter (EventSource는 header를 지정할 수 없음)
+    @GetMapping(value = {"/alarm/subscribe", "/alram/subscribe"}, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> subscribe(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                   @RequestParam(required = false) String token,
+                                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return authenticate(authorization, token)
+                .flatMapMany(userId -> alarmHub.connect(userId, parseLastEventId(lastEventId)));
+    }
+
+    // user를 조회할 DB가 없음 -> userId가 들어있는 stateless token만 허용 (app의 jwt.stateless: true)
+    private Mono<Integer> authenticate(String authorization, String token){
+        final Claims claims;
+        try{
+            claims = JwtTokenUtils.extractClaims(resolveToken(authorization, token), key);
+        } catch (RuntimeException e){
+            // 서명이 틀리거나 만료된 token
+            log.error("Error occurs while validating {}", e.toString());
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+        }
+
+        Integer userId = JwtTokenUtils.getUserId(claims);
+        if(userId == null){
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Stateless token is required"));
+        }
+
+        // 폐기된 token version인지 검사 (탈퇴, 전체 로그아웃 등)
+        Long version = JwtTokenUtils.getVersion(claims);
+        if(version == null){
+            return Mono.just(userId);
+        }
+        return tokenRevocationRepository.isRevoked(userId, version)
+                .flatMap(revoked -> revoked ? Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED)) : Mono.just(userId));
+    }
+
+    private String resolveToken(String authorization, String token){
+        if(authorization != null && authorization.startsWith("Bearer ")){
+            return authorization.substring("Bearer ".length()).trim();
+        }
+        if(token == null || token.isBlank()){
+            throw new IllegalArgumentException("Token is empty");
+        }
+        return token.trim();
+    }
+
+    // 잘못된 값이면 재전송 없이 연결만
+    private Integer parseLastEventId(String lastEventId){
+        try{
+            return lastEventId == null || lastEventId.isBlank() ? null : Integer.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e){
+            return null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.gateway.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// app의 AlarmPresenceRepository와 같은 key -> app의 AlarmBroker가 이 서버로도 알람을 보냄
+@Slf4j
+@Repository
+public class AlarmPresenceRepository {
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String nodeId;
+    // SSE 연결 최대 유지 시간 + 여유분 -> 연결이 유지되는 동안 만료되지 않음
+    private final static Duration PRESENCE_TTL_MARGIN = Duration.ofMinutes(10);
+    private final Duration presenceTtl;
+
+    public AlarmPresenceRepository(ReactiveStringRedisTemplate redisTemplate,
+                                   @Value("${sns.node-id:}") String nodeId,
+                                   @Value("${sns.alarm.sse.max-lifetime-ms:3600000}") long maxLifetimeMs) {
+        this.redisTemplate = redisTemplate;
+        this.presenceTtl = Duration.ofMillis(maxLifetimeMs).plus(PRESENCE_TTL_MARGIN);
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : "gateway-" + UUID.randomUUID();
+        log.info("Alarm node id {}", this.nodeId);
+    }
+
+    public String getNodeId(){
+        return nodeId;
+    }
+
+    public Mono<Boolean> register(Integer userId){
+        String key = getKey(userId);
+        return redisTemplate.opsForSet().add(key, nodeId).then(redisTemplate.expire(key, presenceTtl));
+    }
+
+    public Mono<Long> unregister(Integer userId){
+        return redisTemplate.opsForSet().remove(getKey(userId), nodeId);
+    }
+
+    private String getKey(Integer userId){
+        return "ALARM:PRESENCE:" + userId;
+    }
+}
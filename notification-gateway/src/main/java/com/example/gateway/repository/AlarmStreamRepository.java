@@ -0,0 +1,45 @@
+package com.example.gateway.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// app의 AlarmStreamRepository가 저장한 user별 최근 알람 -> 재연결 시 Last-Event-ID 이후 알람을 다시 전송
+@Repository
+@RequiredArgsConstructor
+public class AlarmStreamRepository {
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final static String ALARM_ID_FIELD = "alarmId";
+    private final static String EVENT_FIELD = "event";
+
+    // lastAlarmId 다음부터의 알람 JSON (오래된 순, 내용 없이 저장된 알람은 빈 문자열)
+    // 알람 id 크기가 아닌 stream 순서로 판단 -> lastAlarmId가 이미 삭제되었으면 남아있는 알람 모두 반환
+    public Flux<Map.Entry<Integer, String>> findAfter(Integer userId, Integer lastAlarmId){
+        return redisTemplate.opsForStream().range(getKey(userId), Range.unbounded())
+                .collectList()
+                .flatMapIterable(records -> {
+                    List<Map.Entry<Integer, String>> events = new ArrayList<>();
+                    records.forEach(record -> {
+                        Map<Object, Object> value = record.getValue();
+                        Integer alarmId = Integer.valueOf(value.get(ALARM_ID_FIELD).toString());
+                        if(alarmId.equals(lastAlarmId)){
+                            events.clear();
+                            return;
+                        }
+                        Object event = value.get(EVENT_FIELD);
+                        events.add(Map.entry(alarmId, event == null ? "" : event.toString()));
+                    });
+                    return events;
+                });
+    }
+
+    private String getKey(Integer userId){
+        return "ALARM:STREAM:" + userId;
+    }
+}
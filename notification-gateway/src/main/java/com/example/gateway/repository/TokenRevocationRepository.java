@@ -0,0 +1,20 @@
+package com.example.gateway.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// app의 TokenVersionRepository가 관리하는 폐기된 token version 목록 (읽기만)
+@Repository
+@RequiredArgsConstructor
+public class TokenRevocationRepository {
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final static String REVOKED_KEY = "TOKEN:REVOKED";
+
+    public Mono<Boolean> isRevoked(Integer userId, long version){
+        return redisTemplate.opsForZSet().score(REVOKED_KEY, userId + ":" + version)
+                .map(it -> true)
+                .defaultIfEmpty(false);
+    }
+}
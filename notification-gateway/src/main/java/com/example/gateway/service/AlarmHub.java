@@ -0,0 +1,230 @@
+package com.example.gateway.service;
+
+import com.example.gateway.repository.AlarmPresenceRepository;
+import com.example.gateway.repository.AlarmStreamRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 현재 서버의 알람 SSE 연결 관리
+// ALARM:NODE:{nodeId} 채널로 받은 알람을 받는 user의 모든 연결로 전송 (payload는 알람마다 한 번만 생성)
+// 연결마다 buffer-size개까지만 쌓아둠 -> 넘으면 그 연결만 종료, 나머지 연결/서버에는 영향 없음
+// 알람을 중간에 버리지 않음 -> client는 마지막으로 받은 id(Last-Event-ID)로 재연결해서 나머지를 stream에서 다시 받음
+@Slf4j
+@Service
+public class AlarmHub {
+
+    private final static String ALARM_NAME = "alarm";
+    // 알람 내용이 없는 경우 -> client가 알람 목록을 다시 조회
+    private final static String FALLBACK_DATA = "new alarm";
+
+    private final AlarmPresenceRepository alarmPresenceRepository;
+    private final AlarmStreamRepository alarmStreamRepository;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration maxLifetime;
+    private final long retryMs;
+    private final long retryJitterMs;
+
+    // userId -> 현재 서버의 연결 (기기, 탭마다 하나)
+    private final Map<Integer, Set<FluxSink<ServerSentEvent<String>>>> sinks = new ConcurrentHashMap<>();
+    // 모든 연결이 timer 하나를 공유 -> 연결 수만큼 timer를 만들지 않음
+    private final Flux<ServerSentEvent<String>> heartbeat;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter overflowCounter;
+    private Disposable subscription;
+
+    public AlarmHub(AlarmPresenceRepository alarmPresenceRepository,
+                    AlarmStreamRepository alarmStreamRepository,
+                    ReactiveRedisMessageListenerContainer listenerContainer,
+                    ObjectMapper objectMapper,
+                    MeterRegistry meterRegistry,
+                    @Value("${sns.alarm.gateway.buffer-size:32}") int bufferSize,
+                    @Value("${sns.alarm.sse.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                    @Value("${sns.alarm.sse.max-lifetime-ms:3600000}") long maxLifetimeMs,
+                    @Value("${sns.alarm.sse.retry-ms:3000}") long retryMs,
+                    @Value("${sns.alarm.sse.retry-jitter-ms:5000}") long retryJitterMs) {
+        this.alarmPresenceRepository = alarmPresenceRepository;
+        this.alarmStreamRepository = alarmStreamRepository;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxLifetime = Duration.ofMillis(maxLifetimeMs);
+        this.retryMs = retryMs;
+        this.retryJitterMs = retryJitterMs;
+        this.heartbeat = Flux.interval(Duration.ofMillis(heartbeatIntervalMs))
+                .onBackpressureDrop()
+                .map(it -> ServerSentEvent.<String>builder().comment("").build())
+                .share();
+
+        Gauge.builder("sns.gateway.connections", connections, AtomicInteger::get).register(meterRegistry);
+        this.overflowCounter = Counter.builder("sns.gateway.overflow").register(meterRegistry);
+    }
+
+    // Redis 연결이 끊겨도 다시 구독
+    @PostConstruct
+    public void subscribe(){
+        subscription = listenerContainer.receive(ChannelTopic.of(getChannel(alarmPresenceRepository.getNodeId())))
+                .map(ReactiveSubscription.Message::getMessage)
+                .doOnNext(this::dispatch)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    // lastEventId -> 재연결한 client가 마지막으로 받은 알람 id (없으면 null)
+    public Flux<ServerSentEvent<String>> connect(Integer userId, Integer lastEventId){
+        // retry -> 배포 등으로 연결이 한꺼번에 끊겨도 client마다 다른 시점에 재연결
+        ServerSentEvent<String> connected = ServerSentEvent.<String>builder().event(ALARM_NAME).data("connect complete")
+                .retry(Duration.ofMillis(retryMs + ThreadLocalRandom.current().nextLong(retryJitterMs + 1)))
+                .build();
+
+        Flux<ServerSentEvent<String>> live = Flux.<ServerSentEvent<String>>create(sink -> {
+                    add(userId, sink);
+                    sink.onDispose(() -> remove(userId, sink));
+                });
+
+        // 끊어져 있는 동안 놓친 알람 -> 실시간 전송과 겹치면 같은 id가 두 번 갈 수 있음 (client는 id로 중복 제거)
+        Flux<ServerSentEvent<String>> replay = lastEventId == null ? Flux.empty() : alarmStreamRepository.findAfter(userId, lastEventId)
+                .map(it -> toEvent(it.getKey(), it.getValue().isEmpty() ? FALLBACK_DATA : encode(it.getValue())))
+                .onErrorResume(e -> {
+                    log.error("Error occurs while replaying alarms of {} {}", userId, e.toString());
+                    return Flux.empty();
+                });
+
+        // client가 가져가지 못한 알람은 여기에만 쌓임 (buffer-size개)
+        // 넘으면 오류 -> 쌓인 알람까지 보낸 뒤 연결 종료, 보내지 못한 알람은 재연결 시 stream에서 다시 받음
+        Flux<ServerSentEvent<String>> alarms = Flux.merge(live, replay)
+                .onBackpressureBuffer(bufferSize, overflow -> overflowCounter.increment(), BufferOverflowStrategy.ERROR);
+
+        // heartbeat는 buffer 밖에서 합침 -> 알람 buffer를 차지하지 않고, 밀리면 그냥 생략
+        // prefetch 1 -> merge가 알람을 미리 가져가 쌓아두지 않음 (buffer-size가 실제 한도)
+        // 최대 유지 시간이 지나면 종료 -> client는 retry 후 재연결
+        return Flux.concat(Mono.just(connected), Flux.merge(1, alarms, heartbeat.onBackpressureDrop()))
+                .onErrorResume(Exceptions::isOverflow, e -> {
+                    log.info("Alarm buffer of {} is full, close connection", userId);
+                    return Flux.empty();
+                })
+                .take(maxLifetime);
+    }
+
+    // 다른 서버에서 보낸 알람 (app의 AlarmEvent JSON 배열)
+    void dispatch(String message){
+        final JsonNode events;
+        try{
+            events = objectMapper.readTree(message);
+        } catch (JsonProcessingException e){
+            log.error("Error occurs while reading alarms {}", e.toString());
+            return;
+        }
+
+        for(JsonNode event : events){
+            Set<FluxSink<ServerSentEvent<String>>> userSinks = sinks.get(event.path("userId").asInt());
+            if(userSinks == null){
+                continue;
+            }
+            ServerSentEvent<String> sse = toEvent(event.path("alarmId").asInt(), encode(event));
+            userSinks.forEach(sink -> sink.next(sse));
+        }
+    }
+
+    private String encode(String event){
+        try{
+            return encode(objectMapper.readTree(event));
+        } catch (JsonProcessingException e){
+            log.warn("Error occurs while reading alarm {}", e.toString());
+            return FALLBACK_DATA;
+        }
+    }
+
+    // app의 AlarmEventResponse와 같은 형식 (text 제외)
+    private String encode(JsonNode event){
+        if(!event.hasNonNull("alarmType")){
+            return FALLBACK_DATA;
+        }
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.set("id", event.get("alarmId"));
+        payload.set("alarmType", event.get("alarmType"));
+        payload.set("args", event.get("args"));
+        payload.set("registeredAt", event.get("registeredAt"));
+        try{
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e){
+            log.warn("Error occurs while encoding alarm {}", e.toString());
+            return FALLBACK_DATA;
+        }
+    }
+
+    private ServerSentEvent<String> toEvent(Integer alarmId, String payload){
+        return ServerSentEvent.<String>builder().id(alarmId.toString()).event(ALARM_NAME).data(payload).build();
+    }
+
+    private void add(Integer userId, FluxSink<ServerSentEvent<String>> sink){
+        sinks.compute(userId, (key, userSinks) -> {
+            Set<FluxSink<ServerSentEvent<String>>> result = userSinks == null ? ConcurrentHashMap.newKeySet() : userSinks;
+            result.add(sink);
+            return result;
+        });
+        connections.incrementAndGet();
+        // 다른 서버에서 발생한 알람도 이 서버로 전달되도록 등록
+        alarmPresenceRepository.register(userId)
+                .subscribe(null, e -> log.error("Error occurs while registering alarm presence of {} {}", userId, e.toString()));
+    }
+
+    // 현재 서버에 남은 연결이 없으면 presence 제거
+    private void remove(Integer userId, FluxSink<ServerSentEvent<String>> sink){
+        boolean[] last = {false};
+        sinks.computeIfPresent(userId, (key, userSinks) -> {
+            userSinks.remove(sink);
+            last[0] = userSinks.isEmpty();
+            return last[0] ? null : userSinks;
+        });
+        connections.decrementAndGet();
+        if(!last[0]){
+            return;
+        }
+
+        alarmPresenceRepository.unregister(userId)
+                // 제거하는 사이에 새로 연결된 경우 다시 등록
+                .then(Mono.defer(() -> sinks.containsKey(userId) ? alarmPresenceRepository.register(userId) : Mono.empty()))
+                .subscribe(null, e -> log.error("Error occurs while removing alarm presence of {} {}", userId, e.toString()));
+    }
+
+    public static String getChannel(String nodeId){
+        return "ALARM:NODE:" + nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        if(subscription != null){
+            subscription.dispose();
+        }
+    }
+}
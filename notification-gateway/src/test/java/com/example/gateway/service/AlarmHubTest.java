@@ -0,0 +1,95 @@
+package com.example.gateway.service;
+
+import com.example.gateway.repository.AlarmPresenceRepository;
+import com.example.gateway.repository.AlarmStreamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AlarmHubTest {
+
+    private final AlarmPresenceRepository alarmPresenceRepository = mock(AlarmPresenceRepository.class);
+    private final AlarmStreamRepository alarmStreamRepository = mock(AlarmStreamRepository.class);
+    private AlarmHub alarmHub;
+
+    @BeforeEach
+    void setUp() {
+        when(alarmPresenceRepository.register(any())).thenReturn(Mono.just(true));
+        when(alarmPresenceRepository.unregister(any())).thenReturn(Mono.just(1L));
+        alarmHub = new AlarmHub(alarmPresenceRepository, alarmStreamRepository, mock(ReactiveRedisMessageListenerContainer.class),
+                new ObjectMapper(), new SimpleMeterRegistry(), 2, 60000L, 3600000L, 3000L, 0L);
+    }
+
+    @Test
+    void 연결된_유저에게_알람_내용을_전송하는_경우() {
+        StepVerifier.create(alarmHub.connect(1, null))
+                .assertNext(it -> Assertions.assertEquals("connect complete", it.data()))
+                .then(() -> alarmHub.dispatch("[{\"alarmId\":10,\"userId\":1,\"alarmType\":\"NEW_LIKE_ON_POST\",\"args\":{\"fromUserId\":2,\"targetId\":3}}]"))
+                .assertNext(it -> {
+                    Assertions.assertEquals("10", it.id());
+                    Assertions.assertTrue(it.data().contains("\"targetId\":3"));
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void 재연결시_놓친_알람을_다시_전송하는_경우() {
+        when(alarmStreamRepository.findAfter(1, 10)).thenReturn(Flux.just(Map.entry(11, "")));
+
+        StepVerifier.create(alarmHub.connect(1, 10))
+                .assertNext(it -> Assertions.assertEquals("connect complete", it.data()))
+                // 내용 없이 저장된 알람 -> client가 목록을 다시 조회
+                .assertNext(it -> {
+                    Assertions.assertEquals("11", it.id());
+                    Assertions.assertEquals("new alarm", it.data());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void 느린_연결은_쌓인_알람까지_보내고_종료하는_경우() {
+        // 처음에는 연결 이벤트만 요청
+        StepVerifier.create(alarmHub.connect(1, null), 1)
+                .assertNext(it -> Assertions.assertEquals("connect complete", it.data()))
+                .then(() -> {
+                    for(int i = 1; i <= 5; i++){
+                        alarmHub.dispatch("[{\"alarmId\":" + i + ",\"userId\":1,\"alarmType\":\"NEW_LIKE_ON_POST\"}]");
+                    }
+                })
+                .thenRequest(10)
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(it -> true)
+                // buffer-size 2 -> 중간에 버린 알람 없이 1번부터 순서대로 일부만 받고 종료
+                // client는 마지막으로 받은 id로 재연결해서 나머지를 stream에서 받음
+                .consumeRecordedWith(events -> {
+                    List<String> ids = events.stream().map(ServerSentEvent::id).collect(Collectors.toList());
+                    Assertions.assertFalse(ids.isEmpty());
+                    Assertions.assertTrue(ids.size() < 5);
+                    for(int i = 0; i < ids.size(); i++){
+                        Assertions.assertEquals(String.valueOf(i + 1), ids.get(i));
+                    }
+                })
+                .verifyComplete();
+
+        verify(alarmPresenceRepository).unregister(1);
+    }
+}
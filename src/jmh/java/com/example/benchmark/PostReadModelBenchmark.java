@@ -0,0 +1,102 @@
+package com.example.benchmark;
+
+import com.example.dto.response.PostResponse;
+import com.example.model.Post;
+import com.example.model.entity.PostEntity;
+import com.example.model.entity.UserEntity;
+import com.example.repository.PostEntityRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 게시글 목록 한 페이지 조회 비용 비교 (H2 in-memory DB, 실제 repository 쿼리)
+// entity -> findAll로 entity 조회 + 영속성 컨텍스트 등록, user는 row마다 lazy 조회 (기존)
+// projection -> findAllPosts로 필요한 컬럼만 Post로 조회 (user는 join)
+// 네트워크 왕복이 없으므로 MariaDB에서는 쿼리 수 차이가 더 크게 나타남
+// 실행 : ./gradlew jmh (H2는 jmh 설정에만 추가되어 있으므로 별도 DB 필요 없음)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostReadModelBenchmark {
+
+    private final static int USER_COUNT = 100;
+    private final static int POST_COUNT = 1000;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private PostEntityRepository postEntityRepository;
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp(){
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.example.model.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        entityManager = entityManagerFactory.createEntityManager();
+        postEntityRepository = new JpaRepositoryFactory(entityManager).getRepository(PostEntityRepository.class);
+        pageRequest = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "id"));
+
+        // user 100명이 게시글 1000개를 나눠서 작성
+        String body = "body".repeat(500);
+        entityManager.getTransaction().begin();
+        List<UserEntity> users = new ArrayList<>(USER_COUNT);
+        for(int i = 0; i < USER_COUNT; i++){
+            UserEntity user = UserEntity.of("user" + i, "$2a$10$abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopq");
+            entityManager.persist(user);
+            users.add(user);
+        }
+        for(int i = 0; i < POST_COUNT; i++){
+            entityManager.persist(PostEntity.of("title" + i, body, users.get(i % USER_COUNT)));
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+
+    @TearDown
+    public void tearDown(){
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public void entity(Blackhole blackhole){
+        // 요청마다 새로운 영속성 컨텍스트 -> 이전 호출에서 올린 entity를 재사용하지 않음
+        entityManager.clear();
+        Page<PostEntity> page = postEntityRepository.findAll(pageRequest);
+        for(PostEntity entity : page){
+            blackhole.consume(PostResponse.fromPost(Post.fromEntity(entity)));
+        }
+    }
+
+    @Benchmark
+    public void projection(Blackhole blackhole){
+        entityManager.clear();
+        Page<Post> page = postEntityRepository.findAllPosts(pageRequest);
+        for(Post post : page){
+            blackhole.consume(PostResponse.fromPost(post));
+        }
+    }
+}
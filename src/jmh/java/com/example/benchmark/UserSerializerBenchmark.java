@@ -0,0 +1,66 @@
+package com.example.benchmark;
+
+import com.example.configuration.serializer.BinaryRedisSerializer;
+import com.example.configuration.serializer.UserBinaryCodec;
+import com.example.model.User;
+import com.example.model.UserRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// user cache 직렬화 비교 (JSON vs binary)
+// payload 크기는 setUp에서 출력
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserSerializerBenchmark {
+
+    private RedisSerializer<User> jsonSerializer;
+    private RedisSerializer<User> binarySerializer;
+
+    private User user;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp(){
+        jsonSerializer = new Jackson2JsonRedisSerializer<>(User.class);
+        binarySerializer = new BinaryRedisSerializer<>(new UserBinaryCodec(), jsonSerializer);
+
+        Timestamp now = Timestamp.from(Instant.now());
+        user = new User(1, "username", "$2a$10$abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopq", UserRole.USER, now, now, null);
+
+        jsonPayload = jsonSerializer.serialize(user);
+        binaryPayload = binarySerializer.serialize(user);
+
+        // binary로 다시 읽은 값이 원본과 같은지 확인
+        if(!user.toString().equals(binarySerializer.deserialize(binaryPayload).toString())){
+            throw new IllegalStateException("binary roundtrip failed");
+        }
+        System.out.printf("payload size json=%d bytes, binary=%d bytes%n", jsonPayload.length, binaryPayload.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize(){
+        return jsonSerializer.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize(){
+        return binarySerializer.serialize(user);
+    }
+
+    @Benchmark
+    public User jsonDeserialize(){
+        return jsonSerializer.deserialize(jsonPayload);
+    }
+
+    @Benchmark
+    public User binaryDeserialize(){
+        return binarySerializer.deserialize(binaryPayload);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.configuration;
 
+import com.example.configuration.filter.JwtTokenCache;
 import com.example.configuration.filter.JwtTokenFilter;
 import com.example.exception.CustomAuthenticationEntryPoint;
+import com.example.service.TokenRevocationService;
 import com.example.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,8 +23,12 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
     // http 요청이 들어왔을 때, security를 어떻게 설정할 것인가를 정의하는 곳
 
     private final UserService userService;
+    private final JwtTokenCache jwtTokenCache;
+    private final TokenRevocationService tokenRevocationService;
     @Value("${jwt.secret-key}")
     private String key;
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     // "/api"로 시작하는 것만 통과를 시킨다.
     @Override
@@ -42,7 +48,7 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 // filter(JwtTokenFilter)를 새롭게 정의하여 들어온 token이 어떤 user를 가르키는지를 체크
-                .addFilterBefore(new JwtTokenFilter(key, userService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenFilter(key, stateless, userService, jwtTokenCache, tokenRevocationService), UsernamePasswordAuthenticationFilter.class)
                 // filter에서 발생한 에러는 CustomAuthenticationEntryPoint에서 처리
                 .exceptionHandling()
                 .authenticationEntryPoint(new CustomAuthenticationEntryPoint())
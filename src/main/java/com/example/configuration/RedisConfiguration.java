@@ -1,19 +1,43 @@
 package com.example.configuration;
 
+import com.example.configuration.serializer.BinaryRedisSerializer;
+import com.example.configuration.serializer.UserBinaryCodec;
 import com.example.model.User;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.lettuce.core.support.caching.CacheAccessor;
+import io.lettuce.core.support.caching.CacheFrontend;
+import io.lettuce.core.support.caching.ClientSideCaching;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.Map;
+
 @RequiredArgsConstructor
 @EnableRedisRepositories
 @Configuration
@@ -21,6 +45,12 @@ public class RedisConfiguration {
 
     @Value("${spring.redis.host}") private String redisHost;
     @Value("${spring.redis.port}") private int redisPort;
+    // json | binary
+    @Value("${sns.redis.serializer:json}") private String serializer;
+    @Value("${sns.redis.command-timeout:2s}") private Duration commandTimeout;
+    @Value("${sns.redis.pool.max-active:16}") private int poolMaxActive;
+    @Value("${sns.redis.pool.max-idle:8}") private int poolMaxIdle;
+    @Value("${sns.redis.pool.min-idle:2}") private int poolMinIdle;
 
 //    private final RedisProperties redisProperties;
 
@@ -31,7 +61,49 @@ public class RedisConfiguration {
 //        LettuceConnectionFactory factory = new LettuceConnectionFactory(configuration);
 //        factory.afterPropertiesSet();
 //        return factory;
-        return new LettuceConnectionFactory(redisHost, redisPort);
+        GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(poolMaxActive);
+        poolConfig.setMaxIdle(poolMaxIdle);
+        poolConfig.setMinIdle(poolMinIdle);
+
+        // pool -> transaction, blocking 명령 등 전용 connection이 필요한 경우에 사용
+        LettuceClientConfiguration clientConfiguration = LettucePoolingClientConfiguration.builder()
+                .commandTimeout(commandTimeout)
+                .poolConfig(poolConfig)
+                .build();
+
+        return new LettuceConnectionFactory(new RedisStandaloneConfiguration(redisHost, redisPort), clientConfiguration);
+    }
+
+    // client-side caching 전용 client (RESP3 -> 같은 connection으로 invalidation push를 받음)
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "sns.redis.client-side-caching.enabled", havingValue = "true")
+    public RedisClient trackingRedisClient(){
+        RedisClient client = RedisClient.create(RedisURI.Builder.redis(redisHost, redisPort).withTimeout(commandTimeout).build());
+        client.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+        return client;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "sns.redis.client-side-caching.enabled", havingValue = "true")
+    public StatefulRedisConnection<String, byte[]> trackingRedisConnection(RedisClient trackingRedisClient){
+        return trackingRedisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+    }
+
+    // 이 connection으로 읽은 USER:* key가 변경/삭제되면 Redis가 invalidation을 보내 서버 메모리에서 제거
+    // 재연결 등으로 tracking이 끊겨도 local-ttl이 지나면 다시 Redis에서 읽음
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "sns.redis.client-side-caching.enabled", havingValue = "true")
+    public CacheFrontend<String, byte[]> userCacheFrontend(StatefulRedisConnection<String, byte[]> trackingRedisConnection,
+                                                          @Value("${sns.cache.user.local-max-size:10000}") long localMaxSize,
+                                                          @Value("${sns.cache.user.local-ttl:30s}") Duration localTtl){
+        Map<String, byte[]> cache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .<String, byte[]>build()
+                .asMap();
+
+        return ClientSideCaching.enable(CacheAccessor.forMap(cache), trackingRedisConnection, TrackingArgs.Builder.enabled());
     }
     
     // 가장 많이 조회되고, 값 수정이 적은 user를 캐싱
@@ -44,8 +116,25 @@ public class RedisConfiguration {
         // key 직렬화
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         // value 직렬화
-        redisTemplate.setValueSerializer(new Jackson2JsonRedisSerializer<User>(User.class));
+        redisTemplate.setValueSerializer(userSerializer());
 
         return  redisTemplate;
     }
+
+    // binary -> 기존 JSON으로 저장된 user도 읽을 수 있음 (TTL이 지나면서 binary로 교체)
+    private RedisSerializer<User> userSerializer(){
+        Jackson2JsonRedisSerializer<User> jsonSerializer = new Jackson2JsonRedisSerializer<>(User.class);
+        if("binary".equals(serializer)){
+            return new BinaryRedisSerializer<>(new UserBinaryCodec(), jsonSerializer);
+        }
+        return jsonSerializer;
+    }
+
+    // 서버 간 cache 무효화 등 Redis pub/sub 구독
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory){
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
 }
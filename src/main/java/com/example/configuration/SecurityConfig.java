@@ -1,5 +1,7 @@
 package com.example.configuration;
 
+import com.example.configuration.filter.JwtTokenCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -7,8 +9,15 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 @Configuration
 public class SecurityConfig {
 
+    // strength(cost)를 올리면 기존 hash는 로그인할 때 새 cost로 다시 저장됨
     @Bean
-    public BCryptPasswordEncoder encodePassword(){
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder encodePassword(@Value("${sns.password.bcrypt-strength:10}") int strength){
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // 검증이 끝난 jwt token cache
+    @Bean
+    public JwtTokenCache jwtTokenCache(@Value("${jwt.cache.max-size:100000}") long maxSize){
+        return new JwtTokenCache(maxSize);
     }
 }
@@ -0,0 +1,58 @@
+package com.example.configuration.filter;
+
+import com.example.utils.JwtTokenUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// 서명 검증이 끝난 token의 claims를 token 만료 시점까지 보관
+// 같은 token으로 들어온 요청은 HMAC 검증, JSON 파싱을 다시 하지 않음
+public class JwtTokenCache {
+
+    private final Cache<String, Claims> cache;
+
+    public JwtTokenCache(long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // 검증에 실패한 token(만료, 서명 오류)은 예외가 그대로 전달되고 cache에 저장되지 않음
+    public Claims getClaims(String token, String key){
+        return cache.get(hash(token), it -> JwtTokenUtils.extractClaims(token, key));
+    }
+
+    // token 원문 대신 hash를 key로 사용
+    private String hash(String token){
+        try{
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
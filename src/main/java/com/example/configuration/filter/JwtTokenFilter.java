@@ -1,8 +1,11 @@
 package com.example.configuration.filter;
 
 import com.example.model.User;
+import com.example.model.UserRole;
+import com.example.service.TokenRevocationService;
 import com.example.service.UserService;
 import com.example.utils.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,9 +28,13 @@ import java.util.List;
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final String key;
+    // true -> token의 claims로 principal 생성 (user 조회 x)
+    private final boolean stateless;
     private final UserService userService;
+    private final JwtTokenCache jwtTokenCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    private final static List<String> TOKEN_IN_PARAM_URLS = List.of("/api/v1/users/alarm/subscrible");
+    private final static List<String> TOKEN_IN_PARAM_URLS = List.of("/api/v1/users/alarm/subscribe", "/api/v1/users/alram/subscribe");
 
     // claims에 넣어준 username을 꺼낸 후, user가 유효한 지 검증
     @Override
@@ -50,18 +57,35 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                 token = header.split(" ")[1].trim();
             }
 
+            // 서명 검증은 한 번만 (이미 검증된 token이면 cache 사용)
+            Claims claims = jwtTokenCache.getClaims(token, key);
+
             // 토큰이 만료 되었는지 검사
-            if(JwtTokenUtils.isExpired(token, key)){
+            if(JwtTokenUtils.isExpired(claims)){
                 log.error("key is expired");
                 filterChain.doFilter(request, response);
                 return ;
             }
 
-            // userName 추출
-            String userName = JwtTokenUtils.getUserName(token, key);
+            // 폐기된 token version인지 검사 (탈퇴, 전체 로그아웃 등)
+            Long version = JwtTokenUtils.getVersion(claims);
+            if(version != null && tokenRevocationService.isRevoked(JwtTokenUtils.getUserId(claims), version)){
+                log.error("key is revoked");
+                filterChain.doFilter(request, response);
+                return ;
+            }
+
+            final User user;
+            if(stateless && JwtTokenUtils.hasPrincipal(claims)){
+                user = toUser(claims);
+            }
+            else{
+                // userName 추출
+                String userName = JwtTokenUtils.getUserName(claims);
 
-            // userName 유효성 검사
-            User user = userService.loadUserByUserName(userName);
+                // userName 유효성 검사
+                user = userService.loadUserByUserName(userName);
+            }
 
             // principal -> 유저가 누구인지를 넣어줌
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -79,4 +103,9 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request,response);
 
     }
+
+    private User toUser(Claims claims){
+        return new User(JwtTokenUtils.getUserId(claims), JwtTokenUtils.getUserName(claims), null,
+                UserRole.valueOf(JwtTokenUtils.getRole(claims)), null, null, null);
+    }
 }
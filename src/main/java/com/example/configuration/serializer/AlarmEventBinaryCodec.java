@@ -0,0 +1,64 @@
+package com.example.configuration.serializer;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// version 1 : alarmId, alarmType, fromUserId, targetId, count, sampleActorIds, registeredAt
+// 받는 user는 연결마다 정해져 있으므로 쓰지 않음 (read 결과의 userId는 null)
+public class AlarmEventBinaryCodec implements BinaryCodec<AlarmEvent> {
+
+    private final static byte TYPE = 2;
+    private final static byte VERSION = 1;
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(AlarmEvent event, DataOutputStream out) throws IOException {
+        AlarmArgs args = event.getArgs() == null ? new AlarmArgs() : event.getArgs();
+        writeInteger(event.getAlarmId(), out);
+        writeString(event.getAlarmType() == null ? null : event.getAlarmType().name(), out);
+        writeInteger(args.getFromUserId(), out);
+        writeInteger(args.getTargetId(), out);
+        writeInteger(args.getCount(), out);
+        List<Integer> sampleActorIds = args.getSampleActorIds() == null ? List.of() : args.getSampleActorIds();
+        out.writeShort(sampleActorIds.size());
+        for(Integer actorId : sampleActorIds){
+            out.writeInt(actorId);
+        }
+        writeTimestamp(event.getRegisteredAt(), out);
+    }
+
+    @Override
+    public AlarmEvent read(DataInputStream in, byte version) throws IOException {
+        Integer alarmId = readInteger(in);
+        String alarmType = readString(in);
+        Integer fromUserId = readInteger(in);
+        Integer targetId = readInteger(in);
+        Integer count = readInteger(in);
+        int size = in.readUnsignedShort();
+        List<Integer> sampleActorIds = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            sampleActorIds.add(in.readInt());
+        }
+        Timestamp registeredAt = readTimestamp(in);
+
+        return new AlarmEvent(alarmId, null, alarmType == null ? null : AlarmType.valueOf(alarmType),
+                new AlarmArgs(fromUserId, targetId, count, sampleActorIds), registeredAt);
+    }
+}
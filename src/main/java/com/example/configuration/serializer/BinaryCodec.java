@@ -0,0 +1,55 @@
+package com.example.configuration.serializer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+
+// model 하나를 binary로 읽고 쓰는 codec
+// 필드를 추가할 때는 version을 올리고 맨 뒤에 추가 -> read에서 이전 version payload는 기본값으로 채움
+public interface BinaryCodec<T> {
+
+    // payload가 어떤 model인지 구분 (model마다 다른 값)
+    byte getType();
+
+    // write가 쓰는 schema version
+    byte getVersion();
+
+    void write(T value, DataOutputStream out) throws IOException;
+
+    T read(DataInputStream in, byte version) throws IOException;
+
+    // null 여부(boolean)를 먼저 쓰는 nullable 필드 helper
+    default void writeInteger(Integer value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null){
+            out.writeInt(value);
+        }
+    }
+
+    default Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    default void writeString(String value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null){
+            out.writeUTF(value);
+        }
+    }
+
+    default String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    default void writeTimestamp(Timestamp value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null){
+            out.writeLong(value.getTime());
+        }
+    }
+
+    default Timestamp readTimestamp(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Timestamp(in.readLong()) : null;
+    }
+}
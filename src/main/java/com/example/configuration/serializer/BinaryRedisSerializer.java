@@ -0,0 +1,84 @@
+package com.example.configuration.serializer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// [magic][type][version][body] 형태로 저장
+// binary payload가 아니면 (기존 JSON) legacy serializer로 읽고, 읽을 수 없는 payload는 null (cache miss) 처리
+@Slf4j
+public class BinaryRedisSerializer<T> implements RedisSerializer<T> {
+
+    private final static byte MAGIC = (byte) 0xB1;
+
+    private final BinaryCodec<T> codec;
+    private final RedisSerializer<T> legacySerializer;
+
+    public BinaryRedisSerializer(BinaryCodec<T> codec, RedisSerializer<T> legacySerializer) {
+        this.codec = codec;
+        this.legacySerializer = legacySerializer;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if(value == null){
+            return new byte[0];
+        }
+
+        try{
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(codec.getType());
+            out.writeByte(codec.getVersion());
+            codec.write(value, out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e){
+            throw new SerializationException("Could not write binary payload", e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if(bytes == null || bytes.length == 0){
+            return null;
+        }
+
+        if(bytes[0] != MAGIC){
+            return readLegacy(bytes);
+        }
+
+        // 다른 model이거나 더 최신 version으로 저장된 payload -> miss
+        if(bytes.length < 3 || bytes[1] != codec.getType() || bytes[2] > codec.getVersion()){
+            log.warn("Unknown binary payload type {} version {}", bytes.length > 1 ? bytes[1] : null, bytes.length > 2 ? bytes[2] : null);
+            return null;
+        }
+
+        try{
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3));
+            return codec.read(in, bytes[2]);
+        } catch (IOException e){
+            log.warn("Error occurs while reading binary payload {}", e.toString());
+            return null;
+        }
+    }
+
+    private T readLegacy(byte[] bytes){
+        if(legacySerializer == null){
+            return null;
+        }
+        try{
+            return legacySerializer.deserialize(bytes);
+        } catch (SerializationException e){
+            log.warn("Error occurs while reading legacy payload {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.configuration.serializer;
+
+import com.example.model.User;
+import com.example.model.UserRole;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+
+// version 1 : id, username, password, role, registeredAt, updatedAt, deletedAt
+// role은 ordinal이 아닌 이름으로 저장 (enum 순서가 바뀌어도 안전)
+public class UserBinaryCodec implements BinaryCodec<User> {
+
+    private final static byte TYPE = 1;
+    private final static byte VERSION = 1;
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(User user, DataOutputStream out) throws IOException {
+        writeInteger(user.getId(), out);
+        writeString(user.getUsername(), out);
+        writeString(user.getPassword(), out);
+        writeString(user.getRole() == null ? null : user.getRole().name(), out);
+        writeTimestamp(user.getRegisteredAt(), out);
+        writeTimestamp(user.getUpdatedAt(), out);
+        writeTimestamp(user.getDeletedAt(), out);
+    }
+
+    @Override
+    public User read(DataInputStream in, byte version) throws IOException {
+        Integer id = readInteger(in);
+        String username = readString(in);
+        String password = readString(in);
+        String role = readString(in);
+        Timestamp registeredAt = readTimestamp(in);
+        Timestamp updatedAt = readTimestamp(in);
+        Timestamp deletedAt = readTimestamp(in);
+
+        return new User(id, username, password, role == null ? null : UserRole.valueOf(role), registeredAt, updatedAt, deletedAt);
+    }
+}
@@ -4,16 +4,24 @@ import com.example.dto.request.PostCommentRequest;
 import com.example.dto.request.PostCreateRequest;
 import com.example.dto.request.PostModifyRequest;
 import com.example.dto.response.CommentResponse;
+import com.example.dto.response.CursorResponse;
 import com.example.dto.response.PostResponse;
 import com.example.dto.response.Response;
+import com.example.model.Comment;
 import com.example.model.Post;
+import com.example.model.PostEngagement;
 import com.example.service.PostService;
+import com.example.utils.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/posts")
@@ -45,12 +53,26 @@ public class PostController {
 
     @GetMapping
     public Response<Page<PostResponse>> list(Pageable pageable, Authentication authentication){
-        return Response.success(postService.list(pageable).map(PostResponse::fromPost));
+        Page<Post> posts = postService.list(pageable);
+        return Response.success(posts.map(withEngagement(posts.getContent(), authentication)));
     }
 
     @GetMapping("/my")
     public Response<Page<PostResponse>> my(Pageable pageable, Authentication authentication){
-        return Response.success(postService.my(authentication.getName(), pageable).map(PostResponse::fromPost));
+        Page<Post> posts = postService.my(authentication.getName(), pageable);
+        return Response.success(posts.map(withEngagement(posts.getContent(), authentication)));
+    }
+
+    @GetMapping("/cursor")
+    public Response<CursorResponse<PostResponse>> listByCursor(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size, Authentication authentication){
+        Slice<Post> posts = postService.listByCursor(CursorUtils.decode(cursor), CursorUtils.pageOf(size));
+        return Response.success(CursorResponse.of(posts, Post::getId, withEngagement(posts.getContent(), authentication)));
+    }
+
+    @GetMapping("/my/cursor")
+    public Response<CursorResponse<PostResponse>> myByCursor(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size, Authentication authentication){
+        Slice<Post> posts = postService.myByCursor(authentication.getName(), CursorUtils.decode(cursor), CursorUtils.pageOf(size));
+        return Response.success(CursorResponse.of(posts, Post::getId, withEngagement(posts.getContent(), authentication)));
     }
 
     @PostMapping("/{postId}/likes")
@@ -60,6 +82,13 @@ public class PostController {
         return Response.success();
     }
 
+    @DeleteMapping("/{postId}/likes")
+    public Response<Void> unlike(@PathVariable Integer postId, Authentication authentication){
+        postService.unlike(postId, authentication.getName());
+
+        return Response.success();
+    }
+
     @GetMapping("/{postId}/likes")
     public Response<Long> likeCount(@PathVariable Integer postId){
         return Response.success(postService.likeCount(postId));
@@ -76,4 +105,16 @@ public class PostController {
     public Response<Page<CommentResponse>> getComments(@PathVariable Integer postId, Pageable pageable){
         return Response.success(postService.getComments(postId, pageable).map(CommentResponse::fromComment));
     }
+
+    @GetMapping("/{postId}/comments/cursor")
+    public Response<CursorResponse<CommentResponse>> getCommentsByCursor(@PathVariable Integer postId, @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size){
+        return Response.success(CursorResponse.of(
+                postService.getCommentsByCursor(postId, CursorUtils.decode(cursor), CursorUtils.pageOf(size)), Comment::getId, CommentResponse::fromComment));
+    }
+
+    // 목록 한 페이지의 좋아요 수, 댓글 수를 한 번에 조회해서 응답에 포함 -> 게시글마다 /likes 를 호출하지 않아도 됨
+    private Function<Post, PostResponse> withEngagement(List<Post> posts, Authentication authentication){
+        Map<Integer, PostEngagement> engagements = postService.getEngagements(posts, authentication.getName());
+        return post -> PostResponse.fromPost(post, engagements.get(post.getId()));
+    }
 }
@@ -1,25 +1,35 @@
 package com.example.controller;
 
+import com.example.dto.request.AlarmReadRequest;
 import com.example.dto.request.UserJoinRequest;
 import com.example.dto.request.UserLoginRequest;
 import com.example.dto.response.AlarmResponse;
+import com.example.dto.response.CursorResponse;
 import com.example.dto.response.Response;
 import com.example.dto.response.UserJoinResponse;
 import com.example.dto.response.UserLoginResponse;
 import com.example.exception.ErrorCode;
 import com.example.exception.SnsApplicationException;
 import com.example.model.Alarm;
+import com.example.model.AlarmDetail;
+import com.example.model.SseEncoding;
 import com.example.model.User;
 import com.example.service.AlarmService;
 import com.example.service.UserService;
 import com.example.utils.ClassUtils;
+import com.example.utils.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/v1/users")
@@ -40,19 +50,76 @@ public class UserController {
         return Response.success(new UserLoginResponse(token));
     }
 
+    @PostMapping("/tokens/revoke")
+    public Response<Void> revokeTokens(Authentication authentication){
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+                .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+
+        userService.revokeTokens(user.getId());
+        return Response.success();
+    }
+
     @GetMapping("/alarm")
     public Response<Page<AlarmResponse>> alarm(Pageable pageable, Authentication authentication){
         User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
                 .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
 
-        return Response.success(userService.alarmList(user.getId(), pageable).map(AlarmResponse::fromAlarm));
+        Page<Alarm> alarms = userService.alarmList(user.getId(), pageable);
+        return Response.success(alarms.map(withDetail(alarms.getContent())));
     }
 
-    @GetMapping("/alram/subscribe")
-    public SseEmitter subscribe(Authentication authentication){
+    @GetMapping("/alarm/cursor")
+    public Response<CursorResponse<AlarmResponse>> alarmByCursor(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size, Authentication authentication){
         User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
                 .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
 
-        return alarmService.connectAlarm(user.getId());
+        Slice<Alarm> alarms = userService.alarmListByCursor(user.getId(), CursorUtils.decodeTime(cursor), CursorUtils.pageOf(size));
+        return Response.success(CursorResponse.ofCursor(alarms, alarm -> CursorUtils.encode(alarm.getRegisteredAt(), alarm.getId()),
+                withDetail(alarms.getContent())));
+    }
+
+    @GetMapping("/alarm/unread-count")
+    public Response<Long> unreadAlarmCount(Authentication authentication){
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+                .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+
+        return Response.success(userService.unreadAlarmCount(user.getId()));
+    }
+
+    // body가 없거나 alarmIds가 비어있으면 모든 알람 읽음 처리
+    @PostMapping("/alarm/read")
+    public Response<Void> readAlarms(@RequestBody(required = false) AlarmReadRequest request, Authentication authentication){
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+                .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+
+        userService.readAlarms(user.getId(), request == null ? null : request.getAlarmIds());
+        return Response.success();
+    }
+
+    // "/alram/subscribe" -> 기존 client 호환
+    // Last-Event-ID -> EventSource가 재연결할 때 마지막으로 받은 알람 id를 자동으로 보냄
+    // encoding -> 알람 payload 형식 json(기본), compact (EventSource는 header를 지정할 수 없으므로 query parameter)
+    @GetMapping({"/alarm/subscribe", "/alram/subscribe"})
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                @RequestParam(required = false) String encoding, Authentication authentication){
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+                .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+
+        return alarmService.connectAlarm(user.getId(), parseLastEventId(lastEventId), SseEncoding.of(encoding));
+    }
+
+    // 한 페이지의 보낸 사람 이름, 게시글 제목을 한 번에 조회
+    private Function<Alarm, AlarmResponse> withDetail(List<Alarm> alarms){
+        Map<Integer, AlarmDetail> details = userService.getAlarmDetails(alarms);
+        return alarm -> AlarmResponse.fromAlarm(alarm, details.get(alarm.getId()));
+    }
+
+    // 잘못된 값이면 재전송 없이 연결만
+    private Integer parseLastEventId(String lastEventId){
+        try{
+            return lastEventId == null || lastEventId.isBlank() ? null : Integer.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e){
+            return null;
+        }
     }
 }
@@ -0,0 +1,15 @@
+package com.example.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlarmReadRequest {
+    // 비어있으면 모든 알람을 읽음 처리
+    private List<Integer> alarmIds;
+}
@@ -0,0 +1,30 @@
+package com.example.dto.response;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+
+// SSE로 보내는 알람 (AlarmResponse 중 알람이 발생한 시점에 알 수 있는 필드만)
+@Getter
+@AllArgsConstructor
+public class AlarmEventResponse {
+    private Integer id;
+    private AlarmType alarmType;
+    private AlarmArgs args;
+    private String text;
+    private Timestamp registeredAt;
+
+    public static AlarmEventResponse fromEvent(AlarmEvent event){
+        return new AlarmEventResponse(
+                event.getAlarmId(),
+                event.getAlarmType(),
+                event.getArgs(),
+                event.getAlarmType() == null ? null : event.getAlarmType().getAlarmText(),
+                event.getRegisteredAt()
+        );
+    }
+}
@@ -2,11 +2,13 @@ package com.example.dto.response;
 
 import com.example.model.Alarm;
 import com.example.model.AlarmArgs;
+import com.example.model.AlarmDetail;
 import com.example.model.AlarmType;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.sql.Timestamp;
+import java.util.List;
 
 @Getter
 @AllArgsConstructor
@@ -15,19 +17,32 @@ public class AlarmResponse {
     private AlarmType alarmType;
     private AlarmArgs args;
     private String text;
+    private String fromUserName;
+    private List<String> sampleActorNames;
+    private String targetTitle;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
+    private Timestamp readAt;
 
     public static AlarmResponse fromAlarm(Alarm alarm){
+        return fromAlarm(alarm, null);
+    }
+
+    // detail이 없으면 보낸 사람 이름, 게시글 제목은 null
+    public static AlarmResponse fromAlarm(Alarm alarm, AlarmDetail detail){
         return new AlarmResponse(
                 alarm.getId(),
                 alarm.getAlarmType(),
                 alarm.getArgs(),
                 alarm.getAlarmType().getAlarmText(),
+                detail == null ? null : detail.getFromUserName(),
+                detail == null ? null : detail.getSampleActorNames(),
+                detail == null ? null : detail.getTargetTitle(),
                 alarm.getRegisteredAt(),
                 alarm.getUpdatedAt(),
-                alarm.getDeletedAt()
+                alarm.getDeletedAt(),
+                alarm.getReadAt()
         );
     }
 }
\ No newline at end of file
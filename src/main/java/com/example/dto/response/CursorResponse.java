@@ -0,0 +1,40 @@
+package com.example.dto.response;
+
+import com.example.utils.CursorUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+public class CursorResponse<T> {
+    private List<T> content;
+    private Integer size;
+    private boolean hasNext;
+    // 다음 페이지가 없으면 null
+    private String nextCursor;
+
+    public static <S, T> CursorResponse<T> of(Slice<S> slice, Function<S, Integer> idExtractor, Function<S, T> mapper){
+        return ofCursor(slice, last -> CursorUtils.encode(idExtractor.apply(last)), mapper);
+    }
+
+    // 마지막 row로 cursor를 만드는 방법을 직접 지정 (ex. (registeredAt, id) cursor)
+    public static <S, T> CursorResponse<T> ofCursor(Slice<S> slice, Function<S, String> cursorEncoder, Function<S, T> mapper){
+        List<S> content = slice.getContent();
+        String nextCursor = null;
+        if(slice.hasNext() && !content.isEmpty()){
+            nextCursor = cursorEncoder.apply(content.get(content.size() - 1));
+        }
+
+        return new CursorResponse<>(
+                content.stream().map(mapper).collect(Collectors.toList()),
+                slice.getSize(),
+                slice.hasNext(),
+                nextCursor
+        );
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.dto.response;
 
 import com.example.model.Post;
-import com.example.model.User;
+import com.example.model.PostEngagement;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -14,16 +14,27 @@ public class PostResponse {
     private String title;
     private String body;
     private UserResponse user;
+    private Long likeCount;
+    private Long commentCount;
+    private Boolean likedByMe;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
 
     public static PostResponse fromPost(Post post){
+      return fromPost(post, null);
+    }
+
+    // engagement가 없으면 좋아요 수, 댓글 수, 좋아요 여부는 null
+    public static PostResponse fromPost(Post post, PostEngagement engagement){
       return new PostResponse(
               post.getId(),
               post.getTitle(),
               post.getBody(),
               UserResponse.fromUser(post.getUser()),
+              engagement == null ? null : engagement.getLikeCount(),
+              engagement == null ? null : engagement.getCommentCount(),
+              engagement == null ? null : engagement.getLikedByMe(),
               post.getRegisteredAt(),
               post.getUpdatedAt(),
               post.getDeletedAt()
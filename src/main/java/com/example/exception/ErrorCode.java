@@ -16,7 +16,9 @@ public enum ErrorCode {
     POST_NOT_FOUND(HttpStatus.NOT_FOUND, "Post not founded"),
     INVALID_PERMISSION(HttpStatus.UNAUTHORIZED, "Permission is invalid"),
     ALREADY_LIKE(HttpStatus.CONFLICT, "User already liked post"),
-    ALARM_CONNECT_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "alarm connect error");
+    ALARM_CONNECT_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "alarm connect error"),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Cursor is invalid"),
+    PASSWORD_HASHER_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Too many password requests");
     ;
 
     private HttpStatus status;
@@ -2,12 +2,14 @@ package com.example.model;
 
 import com.example.model.entity.AlarmEntity;
 import com.example.model.entity.UserEntity;
+import com.example.utils.TimeUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
+import java.util.Date;
 
 @Getter
 @AllArgsConstructor
@@ -18,6 +20,14 @@ public class Alarm {
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
+    private Timestamp readAt;
+
+    // 목록 조회 projection용 (AlarmEntityRepository) -> json 컬럼은 Object 타입으로 넘어옴
+    public Alarm(Integer id, AlarmType alarmType, Object args, Date registeredAt, Date updatedAt, Date deletedAt, Date readAt){
+        this(id, alarmType, (AlarmArgs) args,
+                TimeUtils.toTimestamp(registeredAt), TimeUtils.toTimestamp(updatedAt), TimeUtils.toTimestamp(deletedAt),
+                TimeUtils.toTimestamp(readAt));
+    }
 
     public static Alarm fromEntity(AlarmEntity entity){
         return new Alarm(
@@ -26,7 +36,8 @@ public class Alarm {
                 entity.getArgs(),
                 entity.getRegisteredAt(),
                 entity.getUpdatedAt(),
-                entity.getDeletedAt()
+                entity.getDeletedAt(),
+                entity.getReadAt()
         );
     }
 }
@@ -2,13 +2,25 @@ package com.example.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
 
 @Getter
+@NoArgsConstructor
 @AllArgsConstructor
 public class AlarmArgs {
-    // 알람을 발생시킨 사람
+    // 알람을 발생시킨 사람 (여러 명이 모인 알람이면 마지막 사람)
     private Integer fromUserId;
     // 알람이 발생한 주체에 대한 ID
     // 게시물에 댓글이 달린 경우 게시글 ID
     private Integer targetId;
+    // 하나로 모인 알람 수 ("N명이 좋아요를 눌렀습니다")
+    private Integer count;
+    // 알람을 발생시킨 사람 일부
+    private List<Integer> sampleActorIds;
+
+    public AlarmArgs(Integer fromUserId, Integer targetId){
+        this(fromUserId, targetId, 1, List.of(fromUserId));
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 알람 목록에서 함께 내려주는 알람을 발생시킨 사람 이름, 게시글 제목 일부
+@Getter
+@AllArgsConstructor
+public class AlarmDetail {
+    private String fromUserName;
+    private List<String> sampleActorNames;
+    private String targetTitle;
+}
@@ -0,0 +1,26 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+// AlarmWriter가 저장한 알람 -> AlarmBroker가 연결된 서버로 전달
+// 다른 서버로 보낼 때 JSON으로 직렬화, SSE로 보낼 알람 내용을 함께 전달 -> client가 알람 목록을 다시 조회하지 않아도 됨
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlarmEvent {
+    private Integer alarmId;
+    // 알람을 받는 user
+    private Integer userId;
+    private AlarmType alarmType;
+    private AlarmArgs args;
+    private Timestamp registeredAt;
+
+    // 알람 id만 있는 경우 (내용 없이 저장된 재전송용 stream 등)
+    public AlarmEvent(Integer alarmId, Integer userId){
+        this(alarmId, userId, null, null, null);
+    }
+}
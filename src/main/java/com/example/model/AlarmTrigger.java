@@ -0,0 +1,16 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 좋아요, 댓글 등 알람이 필요한 동작이 commit 되면 AlarmCoalescer로 전달
+@Getter
+@AllArgsConstructor
+public class AlarmTrigger {
+    // 알람을 받는 user
+    private Integer receiverId;
+    private AlarmType alarmType;
+    // 알람을 발생시킨 user
+    private Integer fromUserId;
+    private Integer targetId;
+}
@@ -2,10 +2,12 @@ package com.example.model;
 
 import com.example.model.entity.CommentEntity;
 import com.example.model.entity.PostEntity;
+import com.example.utils.TimeUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.sql.Timestamp;
+import java.util.Date;
 
 @Getter
 @AllArgsConstructor
@@ -18,6 +20,12 @@ public class Comment {
     private Timestamp updatedAt;
     private Timestamp deletedAt;
 
+    // 목록 조회 projection용 (CommentEntityRepository)
+    public Comment(Integer id, String comment, String userName, Integer postId, Date registeredAt, Date updatedAt, Date deletedAt){
+        this(id, comment, userName, postId,
+                TimeUtils.toTimestamp(registeredAt), TimeUtils.toTimestamp(updatedAt), TimeUtils.toTimestamp(deletedAt));
+    }
+
     public static Comment fromEntity(CommentEntity entity){
         return new Comment(
                 entity.getId(),
@@ -0,0 +1,15 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+// DB에 반영할 좋아요 증감분 한 묶음
+// flushId -> 같은 묶음을 두 번 반영하지 않도록 DB(like_count_flush)에 함께 기록
+@Getter
+@AllArgsConstructor
+public class LikeCountFlush {
+    private String flushId;
+    private Map<Integer, Long> deltas;
+}
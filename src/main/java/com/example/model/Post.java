@@ -2,11 +2,13 @@ package com.example.model;
 
 import com.example.model.entity.PostEntity;
 import com.example.model.entity.UserEntity;
+import com.example.utils.TimeUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
+import java.util.Date;
 
 @Getter
 @AllArgsConstructor
@@ -15,16 +17,25 @@ public class Post {
     private String title;
     private String body;
     private User user;
+    private Long likeCount;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
 
+    // 목록 조회 projection용 (PostEntityRepository) -> 응답에 필요한 user의 id, username, role만 채움
+    public Post(Integer id, String title, String body, Integer userId, String userName, UserRole role, Long likeCount,
+                Date registeredAt, Date updatedAt, Date deletedAt){
+        this(id, title, body, new User(userId, userName, null, role, null, null, null), likeCount,
+                TimeUtils.toTimestamp(registeredAt), TimeUtils.toTimestamp(updatedAt), TimeUtils.toTimestamp(deletedAt));
+    }
+
     public static Post fromEntity(PostEntity postEntity){
         return new Post(
                 postEntity.getId(),
                 postEntity.getTitle(),
                 postEntity.getBody(),
                 User.fromEntity(postEntity.getUser()),
+                postEntity.getLikeCount(),
                 postEntity.getRegisteredAt(),
                 postEntity.getUpdatedAt(),
                 postEntity.getDeletedAt()
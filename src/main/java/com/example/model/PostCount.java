@@ -0,0 +1,12 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 게시글별 집계 결과 (GROUP BY post_id)
+@Getter
+@AllArgsConstructor
+public class PostCount {
+    private Integer postId;
+    private Long count;
+}
@@ -0,0 +1,13 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 게시글 목록에서 함께 내려주는 좋아요 수, 댓글 수, 내가 좋아요를 눌렀는지 여부
+@Getter
+@AllArgsConstructor
+public class PostEngagement {
+    private Long likeCount;
+    private Long commentCount;
+    private Boolean likedByMe;
+}
@@ -0,0 +1,12 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 알람 목록에 함께 내려주는 게시글 제목 (id, title만 조회)
+@Getter
+@AllArgsConstructor
+public class PostTitle {
+    private Integer postId;
+    private String title;
+}
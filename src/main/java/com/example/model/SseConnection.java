@@ -0,0 +1,36 @@
+package com.example.model;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+// SSE 연결 하나 (기기, 탭마다 하나)
+@Getter
+public class SseConnection {
+    private final Integer userId;
+    private final SseEmitter emitter;
+    // 구독할 때 선택한 payload 형식
+    private final SseEncoding encoding;
+    private final long connectedAt;
+    // 마지막으로 데이터를 보낸 시각 -> 최근에 보냈으면 heartbeat 생략
+    private volatile long lastSentAt;
+    private volatile boolean closed = false;
+
+    public SseConnection(Integer userId, SseEmitter emitter, SseEncoding encoding) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.encoding = encoding;
+        this.connectedAt = System.currentTimeMillis();
+        this.lastSentAt = connectedAt;
+    }
+
+    public void send(SseEmitter.SseEventBuilder event) throws IOException {
+        emitter.send(event);
+        lastSentAt = System.currentTimeMillis();
+    }
+
+    public void close(){
+        closed = true;
+    }
+}
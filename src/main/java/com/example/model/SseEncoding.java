@@ -0,0 +1,23 @@
+package com.example.model;
+
+// 알람 SSE payload 형식 -> 구독할 때 encoding 파라미터로 선택
+public enum SseEncoding {
+    // AlarmEventResponse JSON
+    JSON,
+    // AlarmEventBinaryCodec binary를 base64로 (SSE data는 text만 가능)
+    COMPACT,
+    ;
+
+    // 없거나 알 수 없는 값이면 JSON
+    public static SseEncoding of(String value){
+        if(value == null){
+            return JSON;
+        }
+        for(SseEncoding encoding : values()){
+            if(encoding.name().equalsIgnoreCase(value.trim())){
+                return encoding;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+
+// (registeredAt, id) 기준 cursor -> id가 시간 순서를 보장하지 않는 테이블(pooled sequence)에서 사용
+@Getter
+@AllArgsConstructor
+public class TimeCursor {
+    private Timestamp registeredAt;
+    private Integer id;
+}
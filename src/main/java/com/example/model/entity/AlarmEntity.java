@@ -18,20 +18,25 @@ import java.time.Instant;
 @Setter
 @Getter
 @Table(name = "\"alarm\"", indexes = {
-        @Index(name = "user_id_idx", columnList = "user_id")
+        @Index(name = "user_registered_at_idx", columnList = "user_id, registered_at")
 })
 @TypeDef(name = "json", typeClass = JsonType.class)
 @SQLDelete(sql = "UPDATE \"alarm\" SET deleted_at = NOW() WHERE id=?")
 @Where(clause = "deleted_at is NULL")
 @Entity
 public class AlarmEntity {
+    // IDENTITY는 insert마다 id를 받아와야 해서 JDBC batch가 동작하지 않음
+    // pooled sequence -> id를 50개씩 미리 할당받아 여러 알람을 한 번에 insert
+    // 서버마다 다른 id 블록을 쓰므로 id는 시간 순서가 아님 -> 정렬/cursor는 (registeredAt, id) 기준
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alarm_id_generator")
+    @SequenceGenerator(name = "alarm_id_generator", sequenceName = "alarm_id_seq", allocationSize = 50)
     private Integer id;
 
     // 알람을 받은 사람
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    // partition 테이블은 foreign key를 지원하지 않음
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private UserEntity user;
 
     @Enumerated(EnumType.STRING)
@@ -41,6 +46,10 @@ public class AlarmEntity {
     @Column(columnDefinition = "json")
     private AlarmArgs args;
 
+    // null -> 읽지 않은 알람
+    @Column(name = "read_at")
+    private Timestamp readAt;
+
     @Column(name = "registered_at")
     private Timestamp registeredAt;
 
@@ -0,0 +1,23 @@
+package com.example.model.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+// DB에 반영이 끝난 좋아요 증감분 묶음 (LikeCountFlusher)
+// 증감분과 같은 transaction에서 저장 -> Redis에서 삭제하기 전에 실패해도 다음 flush에서 다시 더하지 않음
+@Setter
+@Getter
+@Table(name = "like_count_flush")
+@Entity
+public class LikeCountFlushEntity {
+
+    @Id
+    @Column(name = "flush_id", length = 36)
+    private String flushId;
+
+    @Column(name = "flushed_at")
+    private Timestamp flushedAt;
+}
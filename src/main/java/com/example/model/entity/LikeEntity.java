@@ -11,7 +11,9 @@ import java.time.Instant;
 
 @Setter
 @Getter
-@Table(name = "\"like\"")
+@Table(name = "\"like\"", uniqueConstraints = {
+        @UniqueConstraint(name = "post_id_user_id_uk", columnNames = {"post_id", "user_id"})
+})
 @SQLDelete(sql = "UPDATE \"like\" SET deleted_at = NOW() WHERE id=?")
 @Where(clause = "deleted_at is NULL")
 @Entity
@@ -23,11 +25,11 @@ public class LikeEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private UserEntity user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private PostEntity post;
 
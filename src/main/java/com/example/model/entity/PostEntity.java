@@ -28,10 +28,14 @@ public class PostEntity {
     @Column(name = "body" ,columnDefinition = "TEXT")
     private String body;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private UserEntity user;
 
+    // 좋아요 수 (Redis에 쌓인 증감분을 LikeCountFlusher가 주기적으로 반영)
+    @Column(name = "like_count", nullable = false, columnDefinition = "bigint default 0")
+    private Long likeCount = 0L;
+
     @Column(name = "registered_at")
     private Timestamp registeredAt;
 
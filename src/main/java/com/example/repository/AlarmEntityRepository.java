@@ -1,15 +1,52 @@
 package com.example.repository;
 
+import com.example.model.Alarm;
 import com.example.model.entity.AlarmEntity;
-import com.example.model.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 
 @Repository
 public interface AlarmEntityRepository extends JpaRepository<AlarmEntity, Integer> {
-    Page<AlarmEntity> findAllByUserId(Integer userId, Pageable pageable);
+
+    // 목록 조회는 entity를 영속성 컨텍스트에 올리지 않고 필요한 컬럼만 Alarm으로 바로 조회
+    String ALARM_PROJECTION = "SELECT new com.example.model.Alarm(entity.id, entity.alarmType, entity.args, " +
+            "entity.registeredAt, entity.updatedAt, entity.deletedAt, entity.readAt) FROM AlarmEntity entity ";
+
+    // registeredAt >= since -> 보관 기간 안의 partition만 조회 (partition pruning)
+    @Query(value = ALARM_PROJECTION + "WHERE entity.user.id = :userId AND entity.registeredAt >= :since",
+            countQuery = "SELECT COUNT(entity) FROM AlarmEntity entity WHERE entity.user.id = :userId AND entity.registeredAt >= :since")
+    Page<Alarm> findAllByUserId(@Param("userId") Integer userId, @Param("since") Timestamp since, Pageable pageable);
+
+    // id는 서버마다 블록 단위로 할당(pooled sequence)되어 시간 순서가 아님 -> (registered_at, id) seek
+    // user_registered_at_idx (user_id, registered_at) + PK(id) 순서로 정렬 없이 조회
+    @Query(ALARM_PROJECTION + "WHERE entity.user.id = :userId AND entity.registeredAt >= :since " +
+            "AND (entity.registeredAt < :cursorAt OR (entity.registeredAt = :cursorAt AND entity.id < :cursorId)) " +
+            "ORDER BY entity.registeredAt DESC, entity.id DESC")
+    Slice<Alarm> findAllByUserIdAndCursor(@Param("userId") Integer userId, @Param("cursorAt") Timestamp cursorAt, @Param("cursorId") Integer cursorId,
+                                          @Param("since") Timestamp since, Pageable pageable);
+
+    // Redis에 읽지 않은 알람 수가 없을 때만 사용
+    @Query("SELECT COUNT(entity) FROM AlarmEntity entity WHERE entity.user.id = :userId AND entity.readAt IS NULL AND entity.registeredAt >= :since")
+    long countUnreadByUserId(@Param("userId") Integer userId, @Param("since") Timestamp since);
+
+    // 읽음 처리는 UPDATE 한 번 -> 변경된 row 수 반환
+    @Modifying
+    @Query("UPDATE AlarmEntity entity SET entity.readAt = :readAt " +
+            "WHERE entity.user.id = :userId AND entity.readAt IS NULL AND entity.deletedAt IS NULL AND entity.registeredAt >= :since")
+    int markAllRead(@Param("userId") Integer userId, @Param("since") Timestamp since, @Param("readAt") Timestamp readAt);
+
+    @Modifying
+    @Query("UPDATE AlarmEntity entity SET entity.readAt = :readAt " +
+            "WHERE entity.user.id = :userId AND entity.id IN :alarmIds AND entity.readAt IS NULL AND entity.deletedAt IS NULL")
+    int markRead(@Param("userId") Integer userId, @Param("alarmIds") Collection<Integer> alarmIds, @Param("readAt") Timestamp readAt);
 
 }
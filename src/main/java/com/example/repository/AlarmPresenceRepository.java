@@ -0,0 +1,86 @@
+package com.example.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// user의 SSE 연결이 어느 서버에 있는지 (userId -> node id 목록)
+@Slf4j
+@Repository
+public class AlarmPresenceRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String nodeId;
+    // 연결 최대 유지 시간이 지나면 연결이 종료되고 재연결 시 다시 등록 -> 최대 유지 시간 + 여유분 뒤에 만료
+    // 서버가 비정상 종료되어 unregister하지 못한 경우에도 이 시간이 지나면 정리됨
+    private final static Duration PRESENCE_TTL_MARGIN = Duration.ofMinutes(10);
+    private final Duration presenceTtl;
+
+    public AlarmPresenceRepository(StringRedisTemplate stringRedisTemplate,
+                                   @Value("${sns.node-id:}") String nodeId,
+                                   @Value("${sns.alarm.sse.max-lifetime-ms:3600000}") long maxLifetimeMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.presenceTtl = Duration.ofMillis(maxLifetimeMs).plus(PRESENCE_TTL_MARGIN);
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        log.info("Alarm node id {}", this.nodeId);
+    }
+
+    // 현재 서버의 id
+    public String getNodeId(){
+        return nodeId;
+    }
+
+    public void register(Integer userId){
+        String key = getKey(userId);
+        stringRedisTemplate.opsForSet().add(key, nodeId);
+        stringRedisTemplate.expire(key, presenceTtl);
+    }
+
+    public void unregister(Integer userId){
+        stringRedisTemplate.opsForSet().remove(getKey(userId), nodeId);
+    }
+
+    // 여러 user의 연결 서버를 pipeline 한 번으로 조회
+    @SuppressWarnings("unchecked")
+    public Map<Integer, Set<String>> getNodes(List<Integer> userIds){
+        if(userIds.isEmpty()){
+            return Collections.emptyMap();
+        }
+
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for(Integer userId : userIds){
+                sMembers(connection, userId);
+            }
+            return null;
+        });
+
+        Map<Integer, Set<String>> nodes = new HashMap<>();
+        for(int i = 0; i < userIds.size(); i++){
+            Set<String> members = (Set<String>) results.get(i);
+            if(members != null && !members.isEmpty()){
+                nodes.put(userIds.get(i), members);
+            }
+        }
+        return nodes;
+    }
+
+    private void sMembers(RedisConnection connection, Integer userId){
+        connection.setCommands().sMembers(getKey(userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getKey(Integer userId){
+        return "ALARM:PRESENCE:" + userId;
+    }
+}
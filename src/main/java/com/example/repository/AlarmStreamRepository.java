@@ -0,0 +1,103 @@
+package com.example.repository;
+
+import com.example.model.AlarmEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// user별 최근 알람 (Redis Stream, 최대 max-len개) -> 재연결 시 Last-Event-ID 이후 알람을 다시 전송
+// 알람 내용(JSON)도 함께 저장 -> 재전송할 때 알람 테이블을 조회하지 않음
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class AlarmStreamRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    // 알람이 없는 user의 stream은 삭제
+    private final static Duration STREAM_TTL = Duration.ofDays(1);
+    private final static String ALARM_ID_FIELD = "alarmId";
+    private final static String EVENT_FIELD = "event";
+
+    @Value("${sns.alarm.replay.max-len:100}")
+    private long maxLen;
+
+    // 여러 알람을 pipeline 한 번으로 추가 (MAXLEN ~ -> 오래된 알람부터 삭제)
+    public void addAll(List<AlarmEvent> events){
+        if(events.isEmpty()){
+            return;
+        }
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for(AlarmEvent event : events){
+                byte[] key = toBytes(getKey(event.getUserId()));
+                connection.execute("XADD", key, toBytes("MAXLEN"), toBytes("~"), toBytes(String.valueOf(maxLen)),
+                        toBytes("*"), toBytes(ALARM_ID_FIELD), toBytes(event.getAlarmId().toString()),
+                        toBytes(EVENT_FIELD), toBytes(writeEvent(event)));
+                connection.keyCommands().expire(key, STREAM_TTL.getSeconds());
+            }
+            return null;
+        });
+    }
+
+    // lastAlarmId 다음부터의 알람 (오래된 순)
+    // 알람 id 크기가 아닌 stream 순서로 판단 -> lastAlarmId가 이미 삭제되었으면 남아있는 알람 모두 반환
+    public List<AlarmEvent> findAfter(Integer userId, Integer lastAlarmId){
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().range(getKey(userId), Range.unbounded());
+        List<AlarmEvent> events = new ArrayList<>();
+        if(records == null){
+            return events;
+        }
+
+        for(MapRecord<String, Object, Object> record : records){
+            Integer alarmId = Integer.valueOf(record.getValue().get(ALARM_ID_FIELD).toString());
+            if(alarmId.equals(lastAlarmId)){
+                events.clear();
+                continue;
+            }
+            events.add(readEvent(alarmId, userId, record.getValue().get(EVENT_FIELD)));
+        }
+        return events;
+    }
+
+    private String writeEvent(AlarmEvent event){
+        try{
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e){
+            log.warn("Error occurs while writing alarm {} {}", event.getAlarmId(), e.toString());
+            return "";
+        }
+    }
+
+    // 내용 없이 저장된 알람 (이전 version) -> id만 전송
+    private AlarmEvent readEvent(Integer alarmId, Integer userId, Object value){
+        if(value == null || value.toString().isEmpty()){
+            return new AlarmEvent(alarmId, userId);
+        }
+        try{
+            return objectMapper.readValue(value.toString(), AlarmEvent.class);
+        } catch (JsonProcessingException e){
+            log.warn("Error occurs while reading alarm {} {}", alarmId, e.toString());
+            return new AlarmEvent(alarmId, userId);
+        }
+    }
+
+    private byte[] toBytes(String value){
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String getKey(Integer userId){
+        return "ALARM:STREAM:" + userId;
+    }
+}
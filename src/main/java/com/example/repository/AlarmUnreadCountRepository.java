@@ -0,0 +1,52 @@
+package com.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// user별 읽지 않은 알람 수
+// key가 없을 때는 증감하지 않음 -> 다음 조회 때 DB count로 채움
+@Repository
+@RequiredArgsConstructor
+public class AlarmUnreadCountRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final static Duration UNREAD_COUNT_TTL = Duration.ofDays(1);
+    // DB count로 채운 값 -> COUNT와 SET 사이에 증감된 알람이 빠질 수 있으므로 짧게 보관하고 다시 count
+    // 증감(INCRBY)은 TTL을 유지하고, 모두 읽음(reset)은 정확한 값이므로 UNREAD_COUNT_TTL
+    private final static Duration FILL_TTL = Duration.ofMinutes(1);
+
+    // 0 밑으로 내려가지 않도록 보정
+    private final static RedisScript<Long> INCREASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end " +
+            "local count = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+            "if count < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') return 0 end " +
+            "return count", Long.class);
+
+    public void increase(Integer userId, long delta){
+        stringRedisTemplate.execute(INCREASE_SCRIPT, List.of(getKey(userId)), String.valueOf(delta));
+    }
+
+    public Optional<Long> getUnreadCount(Integer userId){
+        return Optional.ofNullable(stringRedisTemplate.opsForValue().get(getKey(userId))).map(Long::valueOf);
+    }
+
+    // 이미 다른 요청이 채운 값이 있으면 덮어쓰지 않음
+    public void setUnreadCount(Integer userId, long count){
+        stringRedisTemplate.opsForValue().setIfAbsent(getKey(userId), String.valueOf(count), FILL_TTL);
+    }
+
+    // 모두 읽음 -> 0
+    public void reset(Integer userId){
+        stringRedisTemplate.opsForValue().set(getKey(userId), "0", UNREAD_COUNT_TTL);
+    }
+
+    private String getKey(Integer userId){
+        return "ALARM:UNREAD:" + userId;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.repository;
 
+import com.example.model.Comment;
+import com.example.model.PostCount;
 import com.example.model.entity.CommentEntity;
 import com.example.model.entity.PostEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,9 +14,29 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommentEntityRepository extends JpaRepository<CommentEntity, Integer> {
-    Page<CommentEntity> findAllByPost(PostEntity postEntity, Pageable pageable);
+
+    // 목록 조회는 entity를 영속성 컨텍스트에 올리지 않고 필요한 컬럼만 Comment로 바로 조회 (post는 id만 사용하므로 join 하지 않음)
+    String COMMENT_PROJECTION = "SELECT new com.example.model.Comment(entity.id, entity.comment, user.username, " +
+            "entity.post.id, entity.registeredAt, entity.updatedAt, entity.deletedAt) " +
+            "FROM CommentEntity entity JOIN entity.user user ";
+
+    @Query(value = COMMENT_PROJECTION + "WHERE entity.post.id = :postId",
+            countQuery = "SELECT COUNT(entity) FROM CommentEntity entity WHERE entity.post.id = :postId")
+    Page<Comment> findAllCommentsByPostId(@Param("postId") Integer postId, Pageable pageable);
+
+    // (post_id, id) seek -> post_id_idx는 PK를 포함하므로 별도 index 불필요
+    @Query(COMMENT_PROJECTION + "WHERE entity.post.id = :postId AND entity.id < :cursor ORDER BY entity.id DESC")
+    Slice<Comment> findAllCommentsByPostIdAndCursor(@Param("postId") Integer postId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    // 게시글 목록 한 페이지의 댓글 수를 한 번의 GROUP BY 쿼리로 조회
+    @Query("SELECT new com.example.model.PostCount(entity.post.id, COUNT(entity)) FROM CommentEntity entity " +
+            "WHERE entity.post.id IN :postIds GROUP BY entity.post.id")
+    List<PostCount> countAllByPostIds(@Param("postIds") Collection<Integer> postIds);
 
     @Transactional
     @Modifying
@@ -0,0 +1,40 @@
+package com.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// 여러 서버 중 하나만 실행해야 하는 작업의 lock
+// SET NX + TTL -> 서버가 lock을 가진 채 종료되어도 TTL이 지나면 풀림
+@Repository
+@RequiredArgsConstructor
+public class DistributedLockRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // 내가 잡은 lock일 때만 삭제 -> TTL이 지나 다른 서버가 잡은 lock은 풀지 않음
+    private final static RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    // lock을 잡으면 해제할 때 사용할 token 반환
+    public Optional<String> tryLock(String name, Duration ttl){
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(getKey(name), token, ttl))
+                ? Optional.of(token) : Optional.empty();
+    }
+
+    public void release(String name, String token){
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(getKey(name)), token);
+    }
+
+    private String getKey(String name){
+        return "LOCK:" + name;
+    }
+}
@@ -1,37 +1,46 @@
 package com.example.repository;
 
+import com.example.model.SseConnection;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+// userId -> 연결 목록 (기기, 탭마다 하나씩)
+// set 변경은 모두 compute 안에서 수행 -> 같은 user의 추가/삭제가 동시에 일어나도 유실되지 않음
 @Repository
 public class EmitterRepository {
 
-    private Map<String, SseEmitter> emitterMap = new HashMap<>();
+    private final Map<Integer, Set<SseConnection>> emitterMap = new ConcurrentHashMap<>();
 
-    public SseEmitter save(Integer userId, SseEmitter sseEmitter){
-        final String key= getKey(userId);
-        emitterMap.put(key, sseEmitter);
+    public SseConnection save(SseConnection connection){
+        emitterMap.compute(connection.getUserId(), (id, connections) -> {
+            Set<SseConnection> result = connections == null ? ConcurrentHashMap.newKeySet() : connections;
+            result.add(connection);
+            return result;
+        });
 
-        return sseEmitter;
+        return connection;
     }
 
-    public Optional<SseEmitter> get(Integer userId){
-        final String key= getKey(userId);
-        return Optional.ofNullable(emitterMap.get(key));
+    // 순회 중에 다른 thread가 추가/삭제해도 안전
+    public Set<SseConnection> get(Integer userId){
+        return Collections.unmodifiableSet(emitterMap.getOrDefault(userId, Collections.emptySet()));
     }
 
-    public void delete(Integer userId){
-        final String key= getKey(userId);
-        emitterMap.remove(key);
-
-    }
-
-
-    public String getKey(Integer userId){
-        return "Emitter:UID:"+userId;
+    // 마지막 연결이 삭제되면 user도 제거하고 true 반환
+    public boolean delete(SseConnection connection){
+        AtomicBoolean empty = new AtomicBoolean(false);
+        emitterMap.computeIfPresent(connection.getUserId(), (id, connections) -> {
+            if(connections.remove(connection) && connections.isEmpty()){
+                empty.set(true);
+                return null;
+            }
+            return connections;
+        });
+        return empty.get();
     }
 }
@@ -0,0 +1,171 @@
+package com.example.repository;
+
+import com.example.model.LikeCountFlush;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class LikeCountCacheRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final static Duration LIKE_COUNT_CACHE_TTL = Duration.ofMinutes(10);
+    private final static String KEY_PREFIX = "LIKE_COUNT:";
+
+    // DB에 아직 반영되지 않은 좋아요 증감분 (postId -> delta)
+    private final static String PENDING_KEY = "LIKE_COUNT:PENDING";
+    // flush 중인 증감분 -> DB 반영이 실패하면 다음 flush에서 다시 처리
+    private final static String FLUSHING_KEY = "LIKE_COUNT:FLUSHING";
+    // FLUSHING의 id -> DB에 함께 기록해서 같은 증감분을 두 번 반영하지 않음
+    private final static String FLUSH_ID_KEY = "LIKE_COUNT:FLUSH_ID";
+    private final static String FLUSH_LOCK_KEY = "LIKE_COUNT:FLUSH_LOCK";
+
+    // 증감분 누적 + cache된 count가 있을 때만 INCRBY (없으면 다음 조회 때 DB + 증감분으로 채움)
+    private final static RedisScript<Long> INCREASE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) " +
+            "if redis.call('EXISTS', KEYS[2]) == 1 then return redis.call('INCRBY', KEYS[2], ARGV[2]) end " +
+            "return nil", Long.class);
+
+    // 이전 flush가 남아있지 않을 때만 PENDING -> FLUSHING 으로 옮기고 새 flush id 부여
+    // 남아있으면 (DB 반영 후 삭제 전에 실패) 같은 flush id로 다시 반환 -> [flushId, field1, value1, ...]
+    private final static RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 0 then " +
+            "  if redis.call('EXISTS', KEYS[1]) == 0 then return {} end " +
+            "  redis.call('RENAME', KEYS[1], KEYS[2]) " +
+            "  redis.call('SET', KEYS[3], ARGV[1]) " +
+            "end " +
+            "local flushId = redis.call('GET', KEYS[3]) " +
+            "if not flushId then flushId = ARGV[1] redis.call('SET', KEYS[3], flushId) end " +
+            "local result = redis.call('HGETALL', KEYS[2]) " +
+            "table.insert(result, 1, flushId) " +
+            "return result", List.class);
+
+    // 게시글들의 증감분을 읽고 삭제 (한 번에) -> [value1, value2, ...] (없으면 nil)
+    private final static RedisScript<List> DISCARD_SCRIPT = new DefaultRedisScript<>(
+            "local values = redis.call('HMGET', KEYS[1], unpack(ARGV)) " +
+            "redis.call('HDEL', KEYS[1], unpack(ARGV)) " +
+            "return values", List.class);
+
+    // lock을 잡은 쪽의 token일 때만 삭제 -> TTL이 지나 다른 서버가 잡은 lock은 풀지 않음
+    private final static RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    public void increase(Integer postId, long delta){
+        stringRedisTemplate.execute(INCREASE_SCRIPT, List.of(PENDING_KEY, getKey(postId)), postId.toString(), String.valueOf(delta));
+    }
+
+    public void setLikeCount(Integer postId, long likeCount){
+        stringRedisTemplate.opsForValue().set(getKey(postId), String.valueOf(likeCount), LIKE_COUNT_CACHE_TTL);
+    }
+
+    public Optional<Long> getLikeCount(Integer postId){
+        return Optional.ofNullable(stringRedisTemplate.opsForValue().get(getKey(postId))).map(Long::valueOf);
+    }
+
+    // DB의 like_count에 아직 더해지지 않은 증감분
+    public long getPendingDelta(Integer postId){
+        return sum(stringRedisTemplate.opsForHash().get(PENDING_KEY, postId.toString()))
+                + sum(stringRedisTemplate.opsForHash().get(FLUSHING_KEY, postId.toString()));
+    }
+
+    // 여러 게시글의 증감분을 HMGET으로 한 번에 조회
+    public Map<Integer, Long> getPendingDeltas(Collection<Integer> postIds){
+        List<Object> fields = postIds.stream().map(String::valueOf).collect(Collectors.toList());
+        List<Object> pending = stringRedisTemplate.opsForHash().multiGet(PENDING_KEY, fields);
+        List<Object> flushing = stringRedisTemplate.opsForHash().multiGet(FLUSHING_KEY, fields);
+
+        Map<Integer, Long> deltas = new HashMap<>();
+        int index = 0;
+        for(Integer postId : postIds){
+            deltas.put(postId, sum(pending.get(index)) + sum(flushing.get(index)));
+            index++;
+        }
+        return deltas;
+    }
+
+    public void delete(Integer postId){
+        stringRedisTemplate.delete(getKey(postId));
+        stringRedisTemplate.opsForHash().delete(PENDING_KEY, postId.toString());
+    }
+
+    // lock을 잡으면 해제할 때 필요한 token 반환
+    public Optional<String> tryFlushLock(Duration ttl){
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, token, ttl))
+                ? Optional.of(token) : Optional.empty();
+    }
+
+    public void releaseFlushLock(String token){
+        stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), token);
+    }
+
+    // 반영할 증감분이 없으면 empty
+    @SuppressWarnings("unchecked")
+    public Optional<LikeCountFlush> drainPending(){
+        List<String> entries = stringRedisTemplate.execute(DRAIN_SCRIPT, List.of(PENDING_KEY, FLUSHING_KEY, FLUSH_ID_KEY),
+                UUID.randomUUID().toString());
+        if(entries == null || entries.isEmpty()){
+            return Optional.empty();
+        }
+
+        // HGETALL -> [flushId, field1, value1, field2, value2, ...]
+        Map<Integer, Long> deltas = IntStream.range(0, (entries.size() - 1) / 2)
+                .boxed()
+                .collect(Collectors.toMap(i -> Integer.valueOf(entries.get(i * 2 + 1)), i -> Long.valueOf(entries.get(i * 2 + 2))));
+        return Optional.of(new LikeCountFlush(entries.get(0), deltas));
+    }
+
+    // DB 반영이 끝난 증감분과 flush id를 한 번에 삭제
+    public void completeFlush(){
+        stringRedisTemplate.delete(List.of(FLUSHING_KEY, FLUSH_ID_KEY));
+    }
+
+    // 보정할 게시글의 아직 반영되지 않은 증감분 삭제 -> 삭제한 증감분 반환 (보정이 실패하면 restorePending으로 되돌림)
+    // flush lock 안에서, FLUSHING이 비어있을 때만 호출
+    @SuppressWarnings("unchecked")
+    public Map<Integer, Long> discardPending(List<Integer> postIds){
+        List<Object> values = stringRedisTemplate.execute(DISCARD_SCRIPT, List.of(PENDING_KEY),
+                postIds.stream().map(String::valueOf).toArray());
+
+        Map<Integer, Long> deltas = new HashMap<>();
+        for(int i = 0; values != null && i < postIds.size(); i++){
+            if(values.get(i) != null){
+                deltas.put(postIds.get(i), sum(values.get(i)));
+            }
+        }
+        return deltas;
+    }
+
+    // cache된 count는 discardPending에서 삭제하지 않았으므로 그대로 둠
+    public void restorePending(Map<Integer, Long> deltas){
+        deltas.forEach((postId, delta) -> stringRedisTemplate.opsForHash().increment(PENDING_KEY, postId.toString(), delta));
+    }
+
+    // 보정한 게시글의 cache된 좋아요 수만 삭제 -> 다음 조회 때 DB + 증감분으로 다시 채움
+    public void evictLikeCounts(Collection<Integer> postIds){
+        stringRedisTemplate.delete(postIds.stream().map(this::getKey).collect(Collectors.toList()));
+    }
+
+    private long sum(Object value){
+        return value == null ? 0L : Long.parseLong(value.toString());
+    }
+
+    private String getKey(Integer postId){
+        return KEY_PREFIX + postId;
+    }
+}
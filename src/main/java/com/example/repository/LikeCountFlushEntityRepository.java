@@ -0,0 +1,23 @@
+package com.example.repository;
+
+import com.example.model.entity.LikeCountFlushEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+@Repository
+public interface LikeCountFlushEntityRepository extends JpaRepository<LikeCountFlushEntity, String> {
+
+    // 이미 반영된 flush id면 0 반환 (동시에 같은 id를 넣으면 먼저 commit 된 쪽만 1)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO like_count_flush (flush_id, flushed_at) VALUES (:flushId, NOW())", nativeQuery = true)
+    int insertIgnore(@Param("flushId") String flushId);
+
+    @Modifying
+    @Query("DELETE FROM LikeCountFlushEntity entity WHERE entity.flushedAt < :before")
+    int deleteAllFlushedBefore(@Param("before") Timestamp before);
+}
@@ -2,7 +2,6 @@ package com.example.repository;
 
 import com.example.model.entity.LikeEntity;
 import com.example.model.entity.PostEntity;
-import com.example.model.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,12 +9,24 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface LikeEntityRepository extends JpaRepository<LikeEntity, Integer> {
-    Optional<LikeEntity> findByUserAndPost(UserEntity user, PostEntity post);
+
+    // unique(post_id, user_id) -> 이미 좋아요를 누른 경우 무시되고 0 반환
+    // 조회 없이 한 번의 INSERT로 중복 좋아요 방지
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO `like` (user_id, post_id, registered_at) VALUES (:userId, :postId, NOW())", nativeQuery = true)
+    int insertIgnore(@Param("userId") Integer userId, @Param("postId") Integer postId);
+
+    // 좋아요 취소 -> unique 제약 때문에 soft delete 대신 row 삭제, 좋아요가 없으면 0 반환
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM `like` WHERE user_id = :userId AND post_id = :postId", nativeQuery = true)
+    int deleteByUserIdAndPostId(@Param("userId") Integer userId, @Param("postId") Integer postId);
 
 //    @Query(value = "SELECT COUNT(*) FROM LikeEntity entity WHERE entity.post =:post")
 //    Integer countByPost(@Param("post") PostEntity post);
@@ -24,6 +35,10 @@ public interface LikeEntityRepository extends JpaRepository<LikeEntity, Integer>
 
     Long countByPost(PostEntity post);
 
+    // postIds 중 userName이 좋아요를 누른 게시글 id
+    @Query("SELECT entity.post.id FROM LikeEntity entity WHERE entity.user.username = :userName AND entity.post.id IN :postIds")
+    List<Integer> findLikedPostIds(@Param("userName") String userName, @Param("postIds") Collection<Integer> postIds);
+
     @Transactional
     @Modifying
     @Query("UPDATE LikeEntity entity SET deleted_at = NOW() WHERE entity.post = :post")
@@ -1,14 +1,60 @@
 package com.example.repository;
 
+import com.example.model.Post;
+import com.example.model.PostTitle;
 import com.example.model.entity.PostEntity;
-import com.example.model.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PostEntityRepository extends JpaRepository<PostEntity, Integer> {
 
-    Page<PostEntity> findAllByUser(UserEntity userEntity, Pageable pageable);
+    // 목록 조회는 entity를 영속성 컨텍스트에 올리지 않고 필요한 컬럼만 Post로 바로 조회
+    String POST_PROJECTION = "SELECT new com.example.model.Post(entity.id, entity.title, entity.body, " +
+            "user.id, user.username, user.role, entity.likeCount, entity.registeredAt, entity.updatedAt, entity.deletedAt) " +
+            "FROM PostEntity entity JOIN entity.user user ";
+
+    @Query(value = POST_PROJECTION,
+            countQuery = "SELECT COUNT(entity) FROM PostEntity entity")
+    Page<Post> findAllPosts(Pageable pageable);
+
+    @Query(value = POST_PROJECTION + "WHERE user.id = :userId",
+            countQuery = "SELECT COUNT(entity) FROM PostEntity entity WHERE entity.user.id = :userId")
+    Page<Post> findAllPostsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    // cursor 페이징 -> (id DESC) seek, count 쿼리 없음
+    @Query(POST_PROJECTION + "WHERE entity.id < :cursor ORDER BY entity.id DESC")
+    Slice<Post> findAllPostsByCursor(@Param("cursor") Integer cursor, Pageable pageable);
+
+    // (user_id, id) seek -> user_id_idx는 PK를 포함하므로 별도 index 불필요
+    @Query(POST_PROJECTION + "WHERE user.id = :userId AND entity.id < :cursor ORDER BY entity.id DESC")
+    Slice<Post> findAllPostsByUserIdAndCursor(@Param("userId") Integer userId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    // 알람 목록 한 페이지의 게시글 제목을 IN 쿼리 한 번으로 조회
+    @Query("SELECT new com.example.model.PostTitle(entity.id, entity.title) FROM PostEntity entity WHERE entity.id IN :postIds")
+    List<PostTitle> findAllTitlesByIds(@Param("postIds") Collection<Integer> postIds);
+
+    @Modifying
+    @Query("UPDATE PostEntity entity SET entity.likeCount = entity.likeCount + :delta WHERE entity.id = :postId")
+    void increaseLikeCount(@Param("postId") Integer postId, @Param("delta") Long delta);
+
+    // like_count 보정 대상 -> id 순서로 chunk씩 (PK seek)
+    @Query("SELECT entity.id FROM PostEntity entity WHERE entity.id > :cursor ORDER BY entity.id")
+    List<Integer> findIdsAfter(@Param("cursor") Integer cursor, Pageable pageable);
+
+    // chunk에 포함된 게시글만 보정 -> transaction 하나가 잡는 post row lock을 chunk 크기로 제한
+    @Modifying
+    @Query("UPDATE PostEntity entity SET entity.likeCount = " +
+            "(SELECT COUNT(likeEntity) FROM LikeEntity likeEntity WHERE likeEntity.post = entity AND likeEntity.deletedAt IS NULL) " +
+            "WHERE entity.id IN :postIds")
+    int reconcileLikeCount(@Param("postIds") Collection<Integer> postIds);
 }
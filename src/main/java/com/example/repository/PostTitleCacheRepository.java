@@ -0,0 +1,69 @@
+package com.example.repository;
+
+import com.example.model.PostTitle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 알람 목록에 함께 내려주는 게시글 제목 (postId -> title)
+// 수정/삭제 시 commit 이후에 삭제, 그 사이 다시 채워진 이전 제목은 TTL이 지나면 갱신
+@Repository
+@RequiredArgsConstructor
+public class PostTitleCacheRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final static Duration POST_TITLE_CACHE_TTL = Duration.ofMinutes(10);
+
+    // MGET 한 번으로 조회, 없는 게시글은 결과 map에 포함되지 않음
+    public Map<Integer, String> getTitles(Collection<Integer> postIds){
+        List<Integer> ids = postIds.stream().distinct().collect(Collectors.toList());
+        Map<Integer, String> titles = new HashMap<>();
+        if(ids.isEmpty()){
+            return titles;
+        }
+
+        List<String> found = stringRedisTemplate.opsForValue().multiGet(ids.stream().map(this::getKey).collect(Collectors.toList()));
+        if(found == null){
+            return titles;
+        }
+        for(int i = 0; i < ids.size(); i++){
+            if(found.get(i) != null){
+                titles.put(ids.get(i), found.get(i));
+            }
+        }
+        return titles;
+    }
+
+    // DB에서 채운 제목을 pipeline 한 번으로 저장
+    public void setTitles(Collection<PostTitle> titles){
+        if(titles.isEmpty()){
+            return;
+        }
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for(PostTitle title : titles){
+                if(title.getTitle() != null){
+                    stringConnection.setEx(getKey(title.getPostId()), POST_TITLE_CACHE_TTL.getSeconds(), title.getTitle());
+                }
+            }
+            return null;
+        });
+    }
+
+    public void delete(Integer postId){
+        stringRedisTemplate.delete(getKey(postId));
+    }
+
+    private String getKey(Integer postId){
+        return "POST_TITLE:" + postId;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class TokenVersionRepository {
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // 현재 발급 중인 token version (userId -> version)
+    private final static String VERSION_KEY = "TOKEN:VERSION";
+    // 폐기된 "userId:version" (score = 폐기 시각)
+    private final static String REVOKED_KEY = "TOKEN:REVOKED";
+    // 폐기되면 모든 서버의 bloom filter에 추가
+    public final static String REVOCATION_CHANNEL = "TOKEN:REVOCATION";
+
+    // 현재 version을 폐기 목록에 넣고 version 증가 -> 이후 로그인은 새 version으로 발급
+    private final static RedisScript<String> REVOKE_SCRIPT = new DefaultRedisScript<>(
+            "local member = ARGV[1] .. ':' .. (redis.call('HGET', KEYS[1], ARGV[1]) or '0') " +
+            "redis.call('ZADD', KEYS[2], ARGV[2], member) " +
+            "redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "return member", String.class);
+
+    public long getVersion(Integer userId){
+        Object version = stringRedisTemplate.opsForHash().get(VERSION_KEY, userId.toString());
+        return version == null ? 0L : Long.parseLong(version.toString());
+    }
+
+    public String revoke(Integer userId){
+        String member = stringRedisTemplate.execute(REVOKE_SCRIPT, List.of(VERSION_KEY, REVOKED_KEY),
+                userId.toString(), String.valueOf(System.currentTimeMillis()));
+        stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, member);
+        return member;
+    }
+
+    public boolean isRevoked(Integer userId, long version){
+        return stringRedisTemplate.opsForZSet().score(REVOKED_KEY, getMember(userId, version)) != null;
+    }
+
+    public Set<String> findAllRevoked(){
+        return stringRedisTemplate.opsForZSet().range(REVOKED_KEY, 0, -1);
+    }
+
+    // 폐기 시각이 before 이전 -> 그 version으로 발급된 token은 이미 만료되었으므로 삭제
+    public void prune(long before){
+        stringRedisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, 0, before);
+    }
+
+    public static String getMember(Integer userId, long version){
+        return userId + ":" + version;
+    }
+}
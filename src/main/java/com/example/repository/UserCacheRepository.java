@@ -1,35 +1,197 @@
 package com.example.repository;
 
 import com.example.model.User;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.support.caching.CacheFrontend;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// L1: 서버 메모리 (짧은 TTL, 크기 제한) / L2: Redis
+// client-side caching 모드 -> L1 대신 Redis tracking으로 무효화되는 서버 메모리 cache 사용
 @Slf4j
 @Repository
-@RequiredArgsConstructor
-public class UserCacheRepository {
+public class UserCacheRepository implements MessageListener {
     private final RedisTemplate<String, User> userRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, User> localCache;
+    // sns.redis.client-side-caching.enabled=true 일 때만 존재
+    private final CacheFrontend<String, byte[]> cacheFrontend;
+    // client-side caching 모드에서 조회 중인 user -> 동시에 miss가 나도 DB는 한 번만 조회
+    // 값은 보관하지 않음 (서버 메모리 cache와 무효화는 tracking이 담당)
+    private final Map<String, CompletableFuture<User>> loading = new ConcurrentHashMap<>();
     private final static Duration USER_CACHE_TTL = Duration.ofDays(3);
+    // user가 변경되면 모든 서버의 L1에서 제거
+    private final static String INVALIDATION_CHANNEL = "USER:INVALIDATION";
+
+    public UserCacheRepository(RedisTemplate<String, User> userRedisTemplate,
+                               StringRedisTemplate stringRedisTemplate,
+                               RedisMessageListenerContainer redisMessageListenerContainer,
+                               ObjectProvider<CacheFrontend<String, byte[]>> userCacheFrontend,
+                               @Value("${sns.cache.user.local-max-size:10000}") long localMaxSize,
+                               @Value("${sns.cache.user.local-ttl:30s}") Duration localTtl) {
+        this.userRedisTemplate = userRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.cacheFrontend = userCacheFrontend.getIfAvailable();
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
 
     public void setUser(User user){
         String key = getKey(user.getUsername());
         log.info("Set User to Redis {}, {}", key, user);
         userRedisTemplate.opsForValue().set(key,user,USER_CACHE_TTL);
+        userRedisTemplate.opsForValue().set(getIdKey(user.getId()),user,USER_CACHE_TTL);
+        evictLocal(user.getUsername());
     }
 
     public Optional<User> getUser(String userName){
         String key = getKey(userName);
-        User user = userRedisTemplate.opsForValue().get(key);
+        User user = cacheFrontend == null ? userRedisTemplate.opsForValue().get(key) : getTrackedUser(key);
         log.info("Get data from redis {}, {}", key, user);
         return Optional.ofNullable(user);
     }
 
+    // L1 -> L2(Redis) -> loader(DB) 순서로 조회
+    // 같은 userName으로 동시에 miss가 나면 한 요청만 Redis/DB를 조회하고 나머지는 결과를 기다림
+    public User getUser(String userName, Function<String, User> loader){
+        if(cacheFrontend != null){
+            return getUser(userName).orElseGet(() -> loadOnce(userName, loader));
+        }
+        return localCache.get(userName, key -> getUser(key).orElseGet(() -> loader.apply(key)));
+    }
+
+    // 여러 user를 MGET 한 번으로 조회 (L1에 있는 user는 Redis 조회 x)
+    // 없는 user는 결과 map에 포함되지 않음
+    public Map<String, User> getUsers(Collection<String> userNames){
+        Map<String, User> users = new HashMap<>();
+        if(cacheFrontend == null){
+            users.putAll(localCache.getAllPresent(userNames));
+        }
+
+        List<String> misses = userNames.stream().distinct().filter(it -> !users.containsKey(it)).collect(Collectors.toList());
+        if(!misses.isEmpty()){
+            List<User> found = userRedisTemplate.opsForValue().multiGet(misses.stream().map(this::getKey).collect(Collectors.toList()));
+            putAll(users, found, User::getUsername);
+        }
+        return users;
+    }
+
+    public Map<Integer, User> getUsersByIds(Collection<Integer> userIds){
+        Map<Integer, User> users = new HashMap<>();
+        List<String> keys = userIds.stream().distinct().map(this::getIdKey).collect(Collectors.toList());
+        if(!keys.isEmpty()){
+            putAll(users, userRedisTemplate.opsForValue().multiGet(keys), User::getId);
+        }
+        return users;
+    }
+
+    // DB에서 채운 user를 pipeline 한 번으로 저장 (USER:{username}, USER_ID:{id})
+    public void setUsers(Collection<User> users){
+        if(users.isEmpty()){
+            return;
+        }
+
+        userRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, User> userOperations = (RedisOperations<String, User>) operations;
+                for(User user : users){
+                    userOperations.opsForValue().set(getKey(user.getUsername()), user, USER_CACHE_TTL);
+                    userOperations.opsForValue().set(getIdKey(user.getId()), user, USER_CACHE_TTL);
+                }
+                return null;
+            }
+        });
+    }
+
+    // 다른 서버의 L1에 남아있는 user 제거
+    public void evictLocal(String userName){
+        localCache.invalidate(userName);
+        stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, userName);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String userName = new String(message.getBody(), StandardCharsets.UTF_8);
+        localCache.invalidate(userName);
+    }
+
+    // 먼저 조회를 시작한 요청만 loader를 실행, 나머지는 같은 결과(예외 포함)를 기다림
+    private User loadOnce(String userName, Function<String, User> loader){
+        CompletableFuture<User> future = new CompletableFuture<>();
+        CompletableFuture<User> running = loading.putIfAbsent(userName, future);
+        if(running != null){
+            try{
+                return running.join();
+            } catch (CompletionException e){
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try{
+            // 기다리는 사이 다른 요청이 채웠을 수 있으므로 Redis 먼저 확인
+            User user = getUser(userName).orElseGet(() -> loader.apply(userName));
+            future.complete(user);
+            return user;
+        } catch (RuntimeException e){
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(userName, future);
+        }
+    }
+
+    // 서버 메모리에 있으면 바로 반환, 없으면 Redis GET 후 tracking 시작
+    private User getTrackedUser(String key){
+        byte[] bytes = cacheFrontend.get(key);
+        return bytes == null ? null : (User) userRedisTemplate.getValueSerializer().deserialize(bytes);
+    }
+
+    private <K> void putAll(Map<K, User> users, List<User> found, Function<User, K> keyExtractor){
+        if(found == null){
+            return;
+        }
+        for(User user : found){
+            if(user != null){
+                users.put(keyExtractor.apply(user), user);
+            }
+        }
+    }
+
     private String getKey(String userName){
         return "USER:" + userName;
     }
+
+    private String getIdKey(Integer userId){
+        return "USER_ID:" + userId;
+    }
 }
@@ -0,0 +1,205 @@
+package com.example.service;
+
+import com.example.model.AlarmEvent;
+import com.example.repository.AlarmPresenceRepository;
+import com.example.repository.AlarmStreamRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// 여러 서버에 걸친 알람 전송
+// 알람을 모아두었다가 받는 user가 연결된 서버별로 묶어서 Redis pub/sub으로 한 번에 전달
+// 현재 서버에 연결된 user는 Redis를 거치지 않고 바로 전송
+@Slf4j
+@Service
+public class AlarmBroker implements MessageListener {
+
+    private final AlarmService alarmService;
+    private final AlarmPresenceRepository alarmPresenceRepository;
+    private final AlarmStreamRepository alarmStreamRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final int bufferCapacity;
+
+    // 아직 전달되지 않은 알람
+    private final Queue<AlarmEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    // 현재 서버의 SSE 전송 전용 thread pool
+    private final ThreadPoolExecutor executor;
+    // 50ms마다 도는 flush 전용 thread -> @Scheduled 공용 thread(좋아요 flush, reconcile 등)가 오래 걸려도 알람이 밀리지 않음
+    private final ScheduledExecutorService flusher;
+    private final Counter droppedCounter;
+
+    public AlarmBroker(AlarmService alarmService,
+                       AlarmPresenceRepository alarmPresenceRepository,
+                       AlarmStreamRepository alarmStreamRepository,
+                       StringRedisTemplate stringRedisTemplate,
+                       ObjectMapper objectMapper,
+                       RedisMessageListenerContainer redisMessageListenerContainer,
+                       MeterRegistry meterRegistry,
+                       @Value("${sns.alarm.dispatch.pool-size:4}") int poolSize,
+                       @Value("${sns.alarm.dispatch.queue-capacity:1000}") int queueCapacity,
+                       @Value("${sns.alarm.broker.flush-interval-ms:50}") long flushIntervalMs) {
+        this.alarmService = alarmService;
+        this.alarmPresenceRepository = alarmPresenceRepository;
+        this.alarmStreamRepository = alarmStreamRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.bufferCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("alarm-dispatch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("sns.alarm.dispatch.queue", executor, it -> it.getQueue().size()).register(meterRegistry);
+        Gauge.builder("sns.alarm.broker.pending", pendingSize, AtomicInteger::get).register(meterRegistry);
+        this.droppedCounter = Counter.builder("sns.alarm.dispatch.dropped").register(meterRegistry);
+
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(getChannel(alarmPresenceRepository.getNodeId())));
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("alarm-broker-flush-"));
+        this.flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // 요청 thread에서는 buffer에 넣기만 함 -> 가득 차면 버림 (알람은 DB에 저장되어 있음)
+    public void publish(AlarmEvent event){
+        if(pendingSize.incrementAndGet() > bufferCapacity){
+            pendingSize.decrementAndGet();
+            droppedCounter.increment();
+            log.warn("Alarm buffer is full, drop alarm {} to {}", event.getAlarmId(), event.getUserId());
+            return;
+        }
+        pending.add(event);
+    }
+
+    // 예외가 밖으로 나가면 이후 flush가 모두 취소됨
+    private void flushSafely(){
+        try{
+            flush();
+        } catch (RuntimeException e){
+            log.error("Error occurs while flushing alarms {}", e.toString());
+        }
+    }
+
+    public void flush(){
+        List<AlarmEvent> events = drain();
+        if(events.isEmpty()){
+            return;
+        }
+
+        // 연결되어 있지 않은 user도 재연결 시 받을 수 있도록 user별 stream에 저장
+        try{
+            alarmStreamRepository.addAll(events);
+        } catch (RuntimeException e){
+            log.error("Error occurs while saving alarm stream {}", e.toString());
+        }
+
+        // 받는 user들의 연결 서버를 한 번에 조회 -> 서버별로 묶음
+        final Map<Integer, Set<String>> nodesByUser;
+        try{
+            nodesByUser = alarmPresenceRepository.getNodes(events.stream().map(AlarmEvent::getUserId).distinct().collect(Collectors.toList()));
+        } catch (RuntimeException e){
+            // Redis를 사용할 수 없으면 현재 서버에 연결된 user에게만 전송
+            log.error("Error occurs while getting alarm presence {}", e.toString());
+            deliver(events);
+            return;
+        }
+
+        Map<String, List<AlarmEvent>> batches = new HashMap<>();
+        for(AlarmEvent event : events){
+            for(String nodeId : nodesByUser.getOrDefault(event.getUserId(), Collections.emptySet())){
+                batches.computeIfAbsent(nodeId, it -> new ArrayList<>()).add(event);
+            }
+        }
+
+        batches.forEach((nodeId, batch) -> {
+            if(nodeId.equals(alarmPresenceRepository.getNodeId())){
+                deliver(batch);
+                return;
+            }
+            try{
+                stringRedisTemplate.convertAndSend(getChannel(nodeId), objectMapper.writeValueAsString(batch));
+            } catch (JsonProcessingException | RuntimeException e){
+                log.error("Error occurs while publishing alarms to {} {}", nodeId, e.toString());
+            }
+        });
+    }
+
+    // 다른 서버에서 보낸 알람
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try{
+            deliver(objectMapper.readValue(message.getBody(), new TypeReference<List<AlarmEvent>>() {}));
+        } catch (IOException e){
+            log.error("Error occurs while reading alarms {}", e.toString());
+        }
+    }
+
+    private void deliver(List<AlarmEvent> events){
+        try{
+            executor.execute(() -> events.forEach(this::send));
+        } catch (RejectedExecutionException e){
+            droppedCounter.increment(events.size());
+            log.warn("Alarm dispatch queue is full, drop {} alarms", events.size());
+        }
+    }
+
+    private void send(AlarmEvent event){
+        try{
+            alarmService.send(event);
+        } catch (RuntimeException e){
+            log.error("Error occurs while dispatching alarm {} {}", event.getAlarmId(), e.toString());
+        }
+    }
+
+    private List<AlarmEvent> drain(){
+        List<AlarmEvent> events = new ArrayList<>();
+        AlarmEvent event;
+        while((event = pending.poll()) != null){
+            pendingSize.decrementAndGet();
+            events.add(event);
+        }
+        return events;
+    }
+
+    public static String getChannel(String nodeId){
+        return "ALARM:NODE:" + nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        flusher.shutdown();
+        executor.shutdown();
+    }
+}
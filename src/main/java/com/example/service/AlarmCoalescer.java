@@ -0,0 +1,83 @@
+package com.example.service;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmTrigger;
+import com.example.model.AlarmType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// (받는 user, 알람 종류, 대상) 별로 window 동안 들어온 알람을 하나로 모아서 AlarmWriter로 전달
+// 인기 게시글에 좋아요가 몰려도 window마다 알람 row 하나, SSE 전송 한 번
+@RequiredArgsConstructor
+@Component
+public class AlarmCoalescer {
+
+    // sampleActorIds에 남기는 최대 인원
+    private final static int SAMPLE_SIZE = 3;
+
+    private final AlarmWriter alarmWriter;
+
+    private final Map<String, CoalescedAlarm> pending = new ConcurrentHashMap<>();
+
+    public void add(AlarmTrigger trigger){
+        pending.compute(getKey(trigger), (key, alarm) -> {
+            CoalescedAlarm result = alarm == null ? new CoalescedAlarm(trigger) : alarm;
+            result.add(trigger.getFromUserId());
+            return result;
+        });
+    }
+
+    // window가 끝날 때마다 모인 알람을 저장 buffer로 전달 (첫 flush도 window 이후)
+    @Scheduled(initialDelayString = "${sns.alarm.coalesce.window-ms:3000}", fixedDelayString = "${sns.alarm.coalesce.window-ms:3000}")
+    public void flush(){
+        for(String key : pending.keySet()){
+            CoalescedAlarm alarm = pending.remove(key);
+            if(alarm != null){
+                alarmWriter.enqueue(alarm.receiverId, alarm.alarmType,
+                        new AlarmArgs(alarm.lastActorId, alarm.targetId, alarm.count, new ArrayList<>(alarm.sampleActorIds)));
+            }
+        }
+    }
+
+    // AlarmWriter보다 먼저 종료됨 (AlarmWriter에 의존) -> 남은 알람을 넘긴 후 AlarmWriter가 저장
+    @PreDestroy
+    public void shutdown(){
+        flush();
+    }
+
+    private String getKey(AlarmTrigger trigger){
+        return trigger.getReceiverId() + ":" + trigger.getAlarmType() + ":" + trigger.getTargetId();
+    }
+
+    // pending.compute 안에서만 변경
+    private static class CoalescedAlarm {
+        private final Integer receiverId;
+        private final AlarmType alarmType;
+        private final Integer targetId;
+        private final Set<Integer> sampleActorIds = new LinkedHashSet<>();
+        private int count = 0;
+        private Integer lastActorId;
+
+        private CoalescedAlarm(AlarmTrigger trigger) {
+            this.receiverId = trigger.getReceiverId();
+            this.alarmType = trigger.getAlarmType();
+            this.targetId = trigger.getTargetId();
+        }
+
+        private void add(Integer actorId){
+            count++;
+            lastActorId = actorId;
+            if(sampleActorIds.size() < SAMPLE_SIZE){
+                sampleActorIds.add(actorId);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.service;
+
+import com.example.model.AlarmTrigger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// commit이 끝난 동작만 알람으로 처리
+// 요청 thread는 AlarmCoalescer에 넣기만 하고, 알람 저장/전송 실패가 좋아요/댓글 저장에 영향을 주지 않음
+@Component
+@RequiredArgsConstructor
+public class AlarmEventListener {
+
+    private final AlarmCoalescer alarmCoalescer;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handle(AlarmTrigger trigger){
+        alarmCoalescer.add(trigger);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.service;
+
+import com.example.repository.DistributedLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// alarm 테이블 월별 partition 관리
+// p{yyyyMM} -> 해당 월의 알람 (VALUES LESS THAN 다음 달 1일), pmax -> 나머지
+// 보관 기간이 지난 알람은 row DELETE 대신 partition을 통째로 삭제
+@Slf4j
+@Component
+public class AlarmPartitionManager {
+
+    private final static String TABLE_NAME = "alarm";
+    private final static DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    // REORGANIZE/DROP은 table lock을 잡는 DDL -> 여러 서버가 동시에 실행하지 않도록 한 서버만 실행
+    private final static String LOCK_NAME = "ALARM:PARTITION";
+    private final static Duration LOCK_TTL = Duration.ofMinutes(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DistributedLockRepository distributedLockRepository;
+    private final int retentionMonths;
+    private final int premakeMonths;
+
+    public AlarmPartitionManager(JdbcTemplate jdbcTemplate,
+                                 DistributedLockRepository distributedLockRepository,
+                                 @Value("${sns.alarm.partition.retention-months:6}") int retentionMonths,
+                                 @Value("${sns.alarm.partition.premake-months:2}") int premakeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.distributedLockRepository = distributedLockRepository;
+        this.retentionMonths = retentionMonths;
+        this.premakeMonths = premakeMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init(){
+        maintain();
+    }
+
+    // lock을 잡은 서버 하나만 실행 -> 다른 서버는 건너뜀 (실패해도 다음 실행에서 다시 시도)
+    @Scheduled(cron = "${sns.alarm.partition.cron:0 30 3 * * *}")
+    public void maintain(){
+        final Optional<String> token;
+        try{
+            token = distributedLockRepository.tryLock(LOCK_NAME, LOCK_TTL);
+        } catch (RuntimeException e){
+            log.error("Error occurs while locking {} partition maintenance {}", TABLE_NAME, e.toString());
+            return;
+        }
+        if(token.isEmpty()){
+            log.info("{} partition maintenance is running on another node, skip", TABLE_NAME);
+            return;
+        }
+
+        try{
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL", String.class, TABLE_NAME);
+            if(partitions.isEmpty()){
+                log.info("{} table is not partitioned, skip partition maintenance", TABLE_NAME);
+                return;
+            }
+
+            TreeSet<YearMonth> months = partitions.stream()
+                    .map(this::toYearMonth)
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toCollection(TreeSet::new));
+
+            createPartitions(months);
+            dropPartitions(months);
+        } catch (RuntimeException e){
+            log.error("Error occurs while maintaining {} partitions {}", TABLE_NAME, e.toString());
+        } finally {
+            release(token.get());
+        }
+    }
+
+    private void release(String token){
+        try{
+            distributedLockRepository.release(LOCK_NAME, token);
+        } catch (RuntimeException e){
+            // TTL이 지나면 풀림
+            log.error("Error occurs while unlocking {} partition maintenance {}", TABLE_NAME, e.toString());
+        }
+    }
+
+    private void createPartitions(TreeSet<YearMonth> months){
+        for(YearMonth month : monthsToCreate(months, YearMonth.now(), premakeMonths)){
+            jdbcTemplate.execute(String.format(
+                    "ALTER TABLE `%s` REORGANIZE PARTITION pmax INTO (PARTITION %s VALUES LESS THAN ('%s'), PARTITION pmax VALUES LESS THAN (MAXVALUE))",
+                    TABLE_NAME, month.format(PARTITION_NAME), month.plusMonths(1).atDay(1)));
+            log.info("Created {} partition {}", TABLE_NAME, month.format(PARTITION_NAME));
+        }
+    }
+
+    private void dropPartitions(TreeSet<YearMonth> months){
+        for(YearMonth month : monthsToDrop(months, YearMonth.now(), retentionMonths)){
+            jdbcTemplate.execute(String.format("ALTER TABLE `%s` DROP PARTITION %s", TABLE_NAME, month.format(PARTITION_NAME)));
+            log.info("Dropped {} partition {}", TABLE_NAME, month.format(PARTITION_NAME));
+        }
+    }
+
+    // 마지막 partition 다음 달 ~ premake-months개월 뒤까지 pmax에서 분리할 달
+    // partition이 하나도 없으면 이번 달부터 (이전 달은 migration script에서 생성)
+    static List<YearMonth> monthsToCreate(TreeSet<YearMonth> months, YearMonth now, int premakeMonths){
+        YearMonth until = now.plusMonths(premakeMonths);
+        List<YearMonth> result = new ArrayList<>();
+        for(YearMonth month = months.isEmpty() ? now : months.last().plusMonths(1); !month.isAfter(until); month = month.plusMonths(1)){
+            result.add(month);
+        }
+        return result;
+    }
+
+    // 보관 기간 시작(retention-months개월 전 달) 이전 달의 partition
+    static SortedSet<YearMonth> monthsToDrop(TreeSet<YearMonth> months, YearMonth now, int retentionMonths){
+        return months.headSet(now.minusMonths(retentionMonths));
+    }
+
+    private Optional<YearMonth> toYearMonth(String partitionName){
+        try{
+            return Optional.of(YearMonth.parse(partitionName, PARTITION_NAME));
+        } catch (RuntimeException e){
+            // pmax 등
+            return Optional.empty();
+        }
+    }
+}
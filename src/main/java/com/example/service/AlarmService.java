@@ -1,48 +1,236 @@
 package com.example.service;
 
+import com.example.configuration.serializer.AlarmEventBinaryCodec;
+import com.example.configuration.serializer.BinaryRedisSerializer;
+import com.example.dto.response.AlarmEventResponse;
 import com.example.exception.ErrorCode;
 import com.example.exception.SnsApplicationException;
+import com.example.model.AlarmEvent;
+import com.example.model.SseConnection;
+import com.example.model.SseEncoding;
+import com.example.repository.AlarmPresenceRepository;
+import com.example.repository.AlarmStreamRepository;
 import com.example.repository.EmitterRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.utils.HashedTimingWheel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-@RequiredArgsConstructor
+@Slf4j
 @Service
 public class AlarmService {
 
-    private final static Long DEFAULT_TIMEOUT = 60L * 1000 * 60;
+    // 0 -> 연결마다 container timeout을 두지 않고, 만료는 timing wheel에서 처리
+    private final static Long NO_CONTAINER_TIMEOUT = 0L;
     private final static String ALARM_NAME="alarm";
+    // 알람 내용을 만들 수 없는 경우 -> client가 알람 목록을 다시 조회
+    private final static String FALLBACK_DATA = "new alarm";
     private final EmitterRepository emitterRepository;
+    private final AlarmPresenceRepository alarmPresenceRepository;
+    private final AlarmStreamRepository alarmStreamRepository;
+    private final ObjectMapper objectMapper;
+    private final BinaryRedisSerializer<AlarmEvent> compactSerializer = new BinaryRedisSerializer<>(new AlarmEventBinaryCodec(), null);
 
-    public void send(Integer alarmId, Integer userId){
-        emitterRepository.get(userId).ifPresent(sseEmitter -> {
-            try{
-                sseEmitter.send(SseEmitter.event().id(alarmId.toString()).name(ALARM_NAME).data("new alarm"));
-            } catch (IOException e){
-                emitterRepository.delete(userId);
-                throw new SnsApplicationException(ErrorCode.ALARM_CONNECT_ERROR);
-            }
-        });
+    // 모든 연결의 heartbeat, 만료 시점을 thread 하나에서 관리
+    private final HashedTimingWheel<SseConnection> heartbeatWheel;
+    // 실제 전송은 별도 thread pool -> 느린 client 하나가 wheel thread(모든 연결의 timer)를 막지 않음
+    private final ThreadPoolExecutor heartbeatExecutor;
+    private final long heartbeatIntervalMs;
+    private final long maxLifetimeMs;
+    private final long retryMs;
+    private final long retryJitterMs;
+
+    public AlarmService(EmitterRepository emitterRepository,
+                        AlarmPresenceRepository alarmPresenceRepository,
+                        AlarmStreamRepository alarmStreamRepository,
+                        ObjectMapper objectMapper,
+                        @Value("${sns.alarm.sse.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                        @Value("${sns.alarm.sse.max-lifetime-ms:3600000}") long maxLifetimeMs,
+                        @Value("${sns.alarm.sse.retry-ms:3000}") long retryMs,
+                        @Value("${sns.alarm.sse.retry-jitter-ms:5000}") long retryJitterMs,
+                        @Value("${sns.alarm.sse.heartbeat-pool-size:2}") int heartbeatPoolSize,
+                        @Value("${sns.alarm.sse.heartbeat-queue-capacity:10000}") int heartbeatQueueCapacity) {
+        this.emitterRepository = emitterRepository;
+        this.alarmPresenceRepository = alarmPresenceRepository;
+        this.alarmStreamRepository = alarmStreamRepository;
+        this.objectMapper = objectMapper;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.retryMs = retryMs;
+        this.retryJitterMs = retryJitterMs;
+        this.heartbeatExecutor = new ThreadPoolExecutor(heartbeatPoolSize, heartbeatPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(heartbeatQueueCapacity),
+                new CustomizableThreadFactory("sse-heartbeat-send-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.heartbeatWheel = new HashedTimingWheel<>("sse-heartbeat", Math.min(1000L, heartbeatIntervalMs), 64, this::dispatchHeartbeat);
+    }
+
+    // 현재 서버에 있는 user의 모든 연결(기기, 탭)로 전송 (다른 서버의 연결은 AlarmBroker가 전달)
+    // 끊어진 연결은 제거만 하고 예외를 던지지 않음 -> 알람 전송 실패가 좋아요/댓글 요청을 실패시키지 않음
+    // payload는 알람마다 encoding별로 한 번만 만들고 모든 연결에 같은 값을 전송
+    public void send(AlarmEvent event){
+        Set<SseConnection> connections = emitterRepository.get(event.getUserId());
+        if(connections.isEmpty()){
+            return;
+        }
+
+        Map<SseEncoding, String> payloads = new EnumMap<>(SseEncoding.class);
+        for(SseConnection connection : connections){
+            send(connection, event.getAlarmId(), payloads.computeIfAbsent(connection.getEncoding(), it -> encode(event, it)));
+        }
     }
 
-    public SseEmitter connectAlarm(Integer userId){
-        SseEmitter sseEmitter = new SseEmitter(DEFAULT_TIMEOUT);
-        emitterRepository.save(userId, sseEmitter);
+    // lastEventId -> 재연결한 client가 마지막으로 받은 알람 id (없으면 null)
+    // encoding -> 알람 payload 형식 (JSON, COMPACT)
+    public SseEmitter connectAlarm(Integer userId, Integer lastEventId, SseEncoding encoding){
+        SseEmitter sseEmitter = new SseEmitter(NO_CONTAINER_TIMEOUT);
+        SseConnection connection = emitterRepository.save(new SseConnection(userId, sseEmitter, encoding));
+        // 다른 서버에서 발생한 알람도 이 서버로 전달되도록 등록
+        alarmPresenceRepository.register(userId);
 
-        sseEmitter.onCompletion(() -> emitterRepository.delete(userId));
-        sseEmitter.onTimeout(() -> emitterRepository.delete(userId));
+        sseEmitter.onCompletion(() -> remove(connection));
+        sseEmitter.onTimeout(() -> remove(connection));
+        sseEmitter.onError(e -> remove(connection));
 
         try{
             // 이벤트 전송
-            sseEmitter.send(SseEmitter.event().id("").name(ALARM_NAME).data("connect complete"));
+            // id를 보내지 않음 -> 빈 id를 보내면 client의 Last-Event-ID가 초기화됨
+            // retry -> 배포 등으로 연결이 한꺼번에 끊겨도 client마다 다른 시점에 재연결
+            connection.send(SseEmitter.event().name(ALARM_NAME).data("connect complete")
+                    .reconnectTime(retryMs + ThreadLocalRandom.current().nextLong(retryJitterMs + 1)));
         } catch (IOException e){
+            remove(connection);
             throw new SnsApplicationException(ErrorCode.ALARM_CONNECT_ERROR);
         }
 
+        // 끊어져 있는 동안 놓친 알람 전송 (알람 테이블은 조회하지 않음)
+        // 재전송과 실시간 전송이 겹치면 같은 id가 두 번 갈 수 있음 -> client는 id로 중복 제거
+        if(lastEventId != null){
+            replay(connection, lastEventId);
+        }
+
+        // 첫 heartbeat 시점을 분산 -> 같은 tick에 몰리지 않음
+        heartbeatWheel.schedule(connection, ThreadLocalRandom.current().nextLong(1, heartbeatIntervalMs + 1));
         return sseEmitter;
 
     }
+
+    private void replay(SseConnection connection, Integer lastEventId){
+        try{
+            for(AlarmEvent event : alarmStreamRepository.findAfter(connection.getUserId(), lastEventId)){
+                if(!send(connection, event.getAlarmId(), encode(event, connection.getEncoding()))){
+                    return;
+                }
+            }
+        } catch (RuntimeException e){
+            log.error("Error occurs while replaying alarms of {} {}", connection.getUserId(), e.toString());
+        }
+    }
+
+    private boolean send(SseConnection connection, Integer alarmId, String payload){
+        try{
+            connection.send(SseEmitter.event().id(alarmId.toString()).name(ALARM_NAME).data(payload));
+            return true;
+        } catch (IOException | IllegalStateException e){
+            log.warn("Error occurs while sending alarm to {} {}", connection.getUserId(), e.toString());
+            remove(connection);
+            return false;
+        }
+    }
+
+    // 내용이 없는 알람(이전 version의 재전송 stream 등)은 client가 목록을 다시 조회하도록 FALLBACK_DATA
+    private String encode(AlarmEvent event, SseEncoding encoding){
+        if(event.getAlarmType() == null){
+            return FALLBACK_DATA;
+        }
+        try{
+            if(encoding == SseEncoding.COMPACT){
+                return Base64.getEncoder().encodeToString(compactSerializer.serialize(event));
+            }
+            return objectMapper.writeValueAsString(AlarmEventResponse.fromEvent(event));
+        } catch (JsonProcessingException | RuntimeException e){
+            log.warn("Error occurs while encoding alarm {} {}", event.getAlarmId(), e.toString());
+            return FALLBACK_DATA;
+        }
+    }
+
+    // wheel thread에서는 전송 작업을 넘기기만 함
+    // queue가 가득 차면 이번 heartbeat만 생략하고 다음 주기에 다시 확인
+    private void dispatchHeartbeat(SseConnection connection){
+        if(connection.isClosed()){
+            return;
+        }
+        try{
+            heartbeatExecutor.execute(() -> heartbeat(connection));
+        } catch (RejectedExecutionException e){
+            log.warn("Heartbeat queue is full, delay heartbeat of {}", connection.getUserId());
+            heartbeatWheel.schedule(connection, heartbeatIntervalMs);
+        }
+    }
+
+    // 최근에 보낸 데이터가 없으면 comment(": ") 전송 -> proxy가 idle 연결을 끊지 않고, 끊어진 연결은 여기서 발견
+    private void heartbeat(SseConnection connection){
+        if(connection.isClosed()){
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if(now - connection.getConnectedAt() >= maxLifetimeMs){
+            // 만료 -> client는 retry 후 재연결
+            connection.getEmitter().complete();
+            remove(connection);
+            return;
+        }
+
+        if(now - connection.getLastSentAt() >= heartbeatIntervalMs){
+            try{
+                connection.send(SseEmitter.event().comment(""));
+            } catch (IOException | IllegalStateException e){
+                log.info("Remove dead alarm connection of {} {}", connection.getUserId(), e.toString());
+                remove(connection);
+                return;
+            }
+        }
+        heartbeatWheel.schedule(connection, heartbeatIntervalMs);
+    }
+
+    // 현재 서버에 남은 연결이 없으면 presence 제거
+    private void remove(SseConnection connection){
+        connection.close();
+        if(!emitterRepository.delete(connection)){
+            return;
+        }
+        Integer userId = connection.getUserId();
+        try{
+            alarmPresenceRepository.unregister(userId);
+            // 제거하는 사이에 새로 연결된 경우 다시 등록
+            if(!emitterRepository.get(userId).isEmpty()){
+                alarmPresenceRepository.register(userId);
+            }
+        } catch (RuntimeException e){
+            log.error("Error occurs while removing alarm presence of {} {}", userId, e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        heartbeatWheel.stop();
+        heartbeatExecutor.shutdown();
+    }
 }
@@ -0,0 +1,241 @@
+package com.example.service;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+import com.example.model.entity.AlarmEntity;
+import com.example.repository.AlarmEntityRepository;
+import com.example.repository.AlarmUnreadCountRepository;
+import com.example.repository.UserEntityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 알람 저장 write-behind buffer
+// writer thread 하나가 buffer에 쌓인 알람을 최대 batch-size개씩 한 transaction, 한 JDBC batch로 저장 (group commit)
+// 한가할 때는 들어오는 즉시 저장되고, 몰릴 때는 저장하는 동안 쌓인 알람이 다음 batch로 묶임
+// 일시적인 DB 오류는 backoff 후 같은 batch를 재시도, max-retries번 모두 실패한 경우에만 버림
+// buffer는 서버 메모리에만 있음 -> 서버가 비정상 종료되면 아직 저장되지 않은 알람은 사라짐 (정상 종료 시에는 모두 저장)
+@Slf4j
+@Component
+public class AlarmWriter {
+
+    private final AlarmEntityRepository alarmEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+    private final AlarmBroker alarmBroker;
+    private final AlarmUnreadCountRepository alarmUnreadCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final long shutdownTimeoutMs;
+    private final static long MAX_RETRY_BACKOFF_MS = 5000L;
+
+    private final BlockingQueue<PendingAlarm> buffer;
+    private final ExecutorService writer;
+    private volatile boolean running = true;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter retriedCounter;
+
+    public AlarmWriter(AlarmEntityRepository alarmEntityRepository,
+                       UserEntityRepository userEntityRepository,
+                       AlarmBroker alarmBroker,
+                       AlarmUnreadCountRepository alarmUnreadCountRepository,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${sns.alarm.writer.batch-size:50}") int batchSize,
+                       @Value("${sns.alarm.writer.capacity:10000}") int capacity,
+                       @Value("${sns.alarm.writer.poll-interval-ms:200}") long pollIntervalMs,
+                       @Value("${sns.alarm.writer.max-retries:5}") int maxRetries,
+                       @Value("${sns.alarm.writer.retry-backoff-ms:200}") long retryBackoffMs,
+                       @Value("${sns.alarm.writer.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.alarmEntityRepository = alarmEntityRepository;
+        this.userEntityRepository = userEntityRepository;
+        this.alarmBroker = alarmBroker;
+        this.alarmUnreadCountRepository = alarmUnreadCountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.buffer = new LinkedBlockingQueue<>(capacity);
+
+        Gauge.builder("sns.alarm.writer.buffer", buffer, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = Timer.builder("sns.alarm.writer.flush").register(meterRegistry);
+        this.writtenCounter = Counter.builder("sns.alarm.writer.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("sns.alarm.writer.dropped").register(meterRegistry);
+        this.retriedCounter = Counter.builder("sns.alarm.writer.retried").register(meterRegistry);
+
+        this.writer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("alarm-writer-"));
+        this.writer.execute(this::run);
+    }
+
+    // buffer가 가득 차면 버림 (DB 장애 등으로 저장이 밀리는 경우)
+    public void enqueue(Integer receiverId, AlarmType alarmType, AlarmArgs args){
+        if(!buffer.offer(new PendingAlarm(receiverId, alarmType, args))){
+            droppedCounter.increment();
+            log.warn("Alarm write buffer is full, drop alarm to {}", receiverId);
+        }
+    }
+
+    private void run(){
+        while(running){
+            try{
+                PendingAlarm first = buffer.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if(first == null){
+                    continue;
+                }
+                List<PendingAlarm> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch, true);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        drain();
+    }
+
+    // 종료 시 남은 알람 저장 -> writer thread에서 실행하므로 저장 중이던 batch가 buffer로 돌아온 후에 시작
+    // 종료 중에는 재시도하지 않음 -> 실패한 batch는 버리고 다음 batch 저장
+    private void drain(){
+        List<PendingAlarm> batch = new ArrayList<>(batchSize);
+        while(buffer.drainTo(batch, batchSize) > 0){
+            write(batch, false);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    // retry -> false면 한 번만 시도 (종료 중)
+    private void write(List<PendingAlarm> batch, boolean retry){
+        List<AlarmEntity> saved = save(batch, retry);
+        if(saved == null){
+            return;
+        }
+        writtenCounter.increment(saved.size());
+
+        // commit 이후에 전송
+        try{
+            for(int i = 0; i < saved.size(); i++){
+                AlarmEntity entity = saved.get(i);
+                alarmBroker.publish(new AlarmEvent(entity.getId(), batch.get(i).receiverId,
+                        entity.getAlarmType(), entity.getArgs(), entity.getRegisteredAt()));
+            }
+        } catch (RuntimeException e){
+            log.error("Error occurs while publishing {} alarms {}", batch.size(), e.toString());
+        }
+        increaseUnreadCounts(batch);
+    }
+
+    // 실패하면 backoff(retry-backoff-ms부터 2배씩, 최대 5초) 후 같은 batch 재시도
+    // 재시도하는 동안 들어온 알람은 buffer에 쌓임, 종료 중이면 buffer로 돌려놓고 drain에서 저장
+    private List<AlarmEntity> save(List<PendingAlarm> batch, boolean retry){
+        long backoffMs = retryBackoffMs;
+        for(int attempt = 1; ; attempt++){
+            try{
+                return flushTimer.record(() -> transactionTemplate.execute(status -> alarmEntityRepository.saveAll(
+                        batch.stream().map(this::toEntity).collect(Collectors.toList()))));
+            } catch (RuntimeException e){
+                if(!retry || attempt > maxRetries){
+                    droppedCounter.increment(batch.size());
+                    log.error("Error occurs while saving {} alarms, drop after {} attempts {}", batch.size(), attempt, e.toString());
+                    return null;
+                }
+                retriedCounter.increment();
+                log.warn("Error occurs while saving {} alarms, retry in {}ms {}", batch.size(), backoffMs, e.toString());
+            }
+
+            if(!running || !sleep(backoffMs)){
+                requeue(batch);
+                return null;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+        }
+    }
+
+    // 종료 요청이 오면 false
+    private boolean sleep(long millis){
+        long until = System.currentTimeMillis() + millis;
+        try{
+            while(running){
+                long remaining = until - System.currentTimeMillis();
+                if(remaining <= 0){
+                    return true;
+                }
+                Thread.sleep(Math.min(remaining, pollIntervalMs));
+            }
+            return false;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void requeue(List<PendingAlarm> batch){
+        for(PendingAlarm alarm : batch){
+            if(!buffer.offer(alarm)){
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    // 저장된 알람 row 수만큼 받는 user의 읽지 않은 알람 수 증가
+    private void increaseUnreadCounts(List<PendingAlarm> batch){
+        Map<Integer, Long> counts = batch.stream().collect(Collectors.groupingBy(it -> it.receiverId, Collectors.counting()));
+        try{
+            counts.forEach(alarmUnreadCountRepository::increase);
+        } catch (RuntimeException e){
+            log.error("Error occurs while increasing unread alarm count {}", e.toString());
+        }
+    }
+
+    private AlarmEntity toEntity(PendingAlarm alarm){
+        // 받는 user는 id만 필요 -> 조회 없이 reference 사용
+        return AlarmEntity.of(userEntityRepository.getById(alarm.receiverId), alarm.alarmType, alarm.args);
+    }
+
+    // writer thread를 멈추고, writer thread가 남은 알람을 모두 저장할 때까지 대기 (최대 shutdown-timeout-ms)
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if(!writer.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)){
+            log.error("Alarm writer did not finish in {}ms, {} alarms may be lost", shutdownTimeoutMs, buffer.size());
+        }
+    }
+
+    private static class PendingAlarm {
+        private final Integer receiverId;
+        private final AlarmType alarmType;
+        private final AlarmArgs args;
+
+        private PendingAlarm(Integer receiverId, AlarmType alarmType, AlarmArgs args) {
+            this.receiverId = receiverId;
+            this.alarmType = alarmType;
+            this.args = args;
+        }
+    }
+}
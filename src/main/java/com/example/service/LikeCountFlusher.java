@@ -0,0 +1,149 @@
+package com.example.service;
+
+import com.example.model.LikeCountFlush;
+import com.example.repository.LikeCountCacheRepository;
+import com.example.repository.LikeCountFlushEntityRepository;
+import com.example.repository.PostEntityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Redis에 쌓인 좋아요 증감분을 post.like_count에 모아서 반영 (write-behind)
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class LikeCountFlusher {
+
+    private final static Duration FLUSH_LOCK_TTL = Duration.ofSeconds(30);
+    // 보정은 게시글 chunk 단위로 lock, transaction을 나눔 -> flush가 오래 막히지 않고, 한 번에 잡는 post row lock도 chunk 크기로 제한
+    private final static int RECONCILE_CHUNK_SIZE = 500;
+    // chunk마다 lock을 다시 잡음 -> 그 사이에 실행 중인 flush가 끝나기를 기다림
+    private final static int RECONCILE_LOCK_ATTEMPTS = 10;
+    private final static long RECONCILE_LOCK_RETRY_MS = 100L;
+    // 이 기간이 지난 flush id 기록은 삭제 (남아있는 FLUSHING은 이보다 훨씬 짧은 시간 안에 재시도됨)
+    private final static Duration FLUSH_HISTORY_RETENTION = Duration.ofDays(1);
+
+    private final LikeCountCacheRepository likeCountCacheRepository;
+    private final LikeCountFlushEntityRepository likeCountFlushEntityRepository;
+    private final PostEntityRepository postEntityRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${sns.like-count.flush-interval-ms:5000}")
+    public void flush(){
+        // 여러 서버가 동시에 flush 하지 않도록 lock
+        Optional<String> lock = likeCountCacheRepository.tryFlushLock(FLUSH_LOCK_TTL);
+        if(lock.isEmpty()){
+            return ;
+        }
+
+        try{
+            flushLocked();
+        } catch (RuntimeException e){
+            log.error("Error occurs while flushing like count {}", e.toString());
+        } finally {
+            likeCountCacheRepository.releaseFlushLock(lock.get());
+        }
+    }
+
+    // like 테이블 기준으로 like_count 보정
+    @Scheduled(cron = "${sns.like-count.reconcile-cron:0 0 4 * * *}")
+    public void reconcile(){
+        Integer cursor = 0;
+        int reconciled = 0;
+        try{
+            List<Integer> postIds = postEntityRepository.findIdsAfter(cursor, PageRequest.of(0, RECONCILE_CHUNK_SIZE));
+            while(!postIds.isEmpty()){
+                Optional<String> lock = tryReconcileLock();
+                if(lock.isEmpty()){
+                    log.info("Like count flush is running on another node, stop reconcile after post {}", cursor);
+                    return ;
+                }
+                try{
+                    reconcileLocked(postIds);
+                } finally {
+                    likeCountCacheRepository.releaseFlushLock(lock.get());
+                }
+                reconciled += postIds.size();
+                cursor = postIds.get(postIds.size() - 1);
+                postIds = postEntityRepository.findIdsAfter(cursor, PageRequest.of(0, RECONCILE_CHUNK_SIZE));
+            }
+
+            transactionTemplate.executeWithoutResult(status ->
+                    likeCountFlushEntityRepository.deleteAllFlushedBefore(Timestamp.from(Instant.now().minus(FLUSH_HISTORY_RETENTION))));
+        } catch (RuntimeException e){
+            log.error("Error occurs while reconciling like count after post {} {}", cursor, e.toString());
+        } finally {
+            log.info("Reconciled like count of {} posts", reconciled);
+        }
+    }
+
+    // flush와 같은 lock 안에서 처리 -> 보정하는 동안 다른 서버가 증감분을 더하지 않음
+    private void reconcileLocked(List<Integer> postIds){
+        // 지금까지 쌓인 증감분(이전에 drain 된 FLUSHING 포함)을 먼저 반영 -> FLUSHING이 빈 상태에서 보정
+        flushLocked();
+
+        // COUNT 직전에 chunk의 남은 증감분을 버림 -> 모두 COUNT 이전에 commit 된 좋아요/좋아요 취소 (commit 이후에만 쌓임)
+        // 이후에 쌓이는 증감분은 버리지 않고 다음 flush에서 반영
+        // COUNT 직전에 commit 됐지만 아직 Redis에 반영되지 않은 증감분(commit ~ INCR 사이, 수 ms)만 두 번 더해질 수 있음 -> 유실은 없음
+        Map<Integer, Long> discarded = likeCountCacheRepository.discardPending(postIds);
+        try{
+            transactionTemplate.executeWithoutResult(status -> postEntityRepository.reconcileLikeCount(postIds));
+        } catch (RuntimeException e){
+            // 보정하지 못했으므로 버린 증감분을 되돌림
+            likeCountCacheRepository.restorePending(discarded);
+            throw e;
+        }
+
+        // commit 이후에 chunk의 cache만 삭제 -> 다음 조회 때 보정된 값 + 증감분으로 다시 채움
+        likeCountCacheRepository.evictLikeCounts(postIds);
+    }
+
+    private Optional<String> tryReconcileLock(){
+        for(int attempt = 1; ; attempt++){
+            Optional<String> lock = likeCountCacheRepository.tryFlushLock(FLUSH_LOCK_TTL);
+            if(lock.isPresent() || attempt >= RECONCILE_LOCK_ATTEMPTS){
+                return lock;
+            }
+            try{
+                Thread.sleep(RECONCILE_LOCK_RETRY_MS);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    private void flushLocked(){
+        Optional<LikeCountFlush> drained = likeCountCacheRepository.drainPending();
+        if(drained.isEmpty()){
+            return ;
+        }
+
+        LikeCountFlush flush = drained.get();
+        Boolean applied = transactionTemplate.execute(status -> {
+            // DB 반영 후 Redis에서 삭제하기 전에 실패한 flush -> 이미 반영되었으므로 다시 더하지 않음
+            if(likeCountFlushEntityRepository.insertIgnore(flush.getFlushId()) == 0){
+                return false;
+            }
+            flush.getDeltas().forEach((postId, delta) -> {
+                if(delta != 0){
+                    postEntityRepository.increaseLikeCount(postId, delta);
+                }
+            });
+            return true;
+        });
+        // commit 이후에만 증감분 삭제 -> 실패하면 다음 flush에서 같은 flush id로 재시도
+        likeCountCacheRepository.completeFlush();
+        log.info("Flushed like count of {} posts (applied : {})", flush.getDeltas().size(), applied);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.service;
+
+import com.example.exception.ErrorCode;
+import com.example.exception.SnsApplicationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// BCrypt 연산을 Tomcat 요청 thread가 아닌 전용 thread pool에서 수행 (bulkhead)
+// 로그인이 몰려도 pool, queue 크기만큼만 CPU를 사용하고 나머지 요청은 바로 거절
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(BCryptPasswordEncoder encoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${sns.password.pool-size:2}") int poolSize,
+                          @Value("${sns.password.queue-capacity:50}") int queueCapacity,
+                          @Value("${sns.password.timeout-ms:5000}") long timeoutMs) {
+        this.encoder = encoder;
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hasher-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("sns.password.hasher.queue", executor, it -> it.getQueue().size()).register(meterRegistry);
+        Gauge.builder("sns.password.hasher.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.encodeTimer = Timer.builder("sns.password.hasher.duration").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("sns.password.hasher.duration").tag("operation", "matches").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("sns.password.hasher.rejected").register(meterRegistry);
+    }
+
+    public String encode(String rawPassword){
+        return submit(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword){
+        return submit(() -> matchesTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // 저장된 hash의 cost가 현재 설정보다 낮으면 true -> 로그인 성공 시 다시 hash
+    public boolean upgradeEncoding(String encodedPassword){
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task){
+        final Future<T> future;
+        try{
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e){
+            rejectedCounter.increment();
+            throw new SnsApplicationException(ErrorCode.PASSWORD_HASHER_BUSY);
+        }
+
+        try{
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e){
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new SnsApplicationException(ErrorCode.PASSWORD_HASHER_BUSY);
+        } catch (InterruptedException e){
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Password hashing interrupted");
+        } catch (ExecutionException e){
+            if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, e.getCause().toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdown();
+    }
+}
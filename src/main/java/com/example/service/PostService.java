@@ -2,18 +2,31 @@ package com.example.service;
 
 import com.example.exception.ErrorCode;
 import com.example.exception.SnsApplicationException;
-import com.example.model.AlarmArgs;
+import com.example.model.AlarmTrigger;
 import com.example.model.AlarmType;
 import com.example.model.Comment;
 import com.example.model.Post;
+import com.example.model.PostCount;
+import com.example.model.PostEngagement;
 import com.example.model.entity.*;
 import com.example.repository.*;
+import com.example.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @RequiredArgsConstructor
 @Service
 public class PostService {
@@ -22,8 +35,9 @@ public class PostService {
     private final UserEntityRepository userEntityRepository;
     private final LikeEntityRepository likeEntityRepository;
     private final CommentEntityRepository commentEntityRepository;
-    private final AlarmEntityRepository alarmEntityRepository;
-    private final AlarmService alarmService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LikeCountCacheRepository likeCountCacheRepository;
+    private final PostTitleCacheRepository postTitleCacheRepository;
 
     @Transactional
     public void create(String title, String body, String userName){
@@ -46,12 +60,14 @@ public class PostService {
                 new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId))
         );
         // 수정하려고 하는 사람이 권한이 있는 사람인지
-        if(postEntity.getUser() != userEntity) {
+        if(!Objects.equals(postEntity.getUser().getId(), userEntity.getId())) {
             throw new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("%s has no permission", userName));
         }
 
         postEntity.setTitle(title);
         postEntity.setBody(body);
+        // 알람 목록의 게시글 제목 cache -> commit 이후에 삭제 (commit 전에 지우면 이전 제목이 다시 채워질 수 있음)
+        TransactionUtils.afterCommit(() -> postTitleCacheRepository.delete(postId));
 
         return Post.fromEntity(postEntityRepository.saveAndFlush(postEntity));
     }
@@ -67,7 +83,7 @@ public class PostService {
         );
 
         // 삭제하려고 하는 사람이 권한이 있는 사람인지
-        if(postEntity.getUser() != userEntity) {
+        if(!Objects.equals(postEntity.getUser().getId(), userEntity.getId())) {
             throw new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("%s has no permission", userName));
         }
 
@@ -76,20 +92,52 @@ public class PostService {
         // 게시글과 연관된 댓글 삭제
         commentEntityRepository.deleteAllByPost(postEntity);
         postEntityRepository.delete(postEntity);
+        likeCountCacheRepository.delete(postId);
+        TransactionUtils.afterCommit(() -> postTitleCacheRepository.delete(postId));
     }
 
     public Page<Post> list(Pageable pageable){
 
-        return postEntityRepository.findAll(pageable).map(Post::fromEntity);
+        return postEntityRepository.findAllPosts(pageable);
     }
 
     public Page<Post> my(String userName, Pageable pageable){
         UserEntity userEntity = userEntityRepository.findByUsername(userName).orElseThrow(() ->
                 new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
 
-        return postEntityRepository.findAllByUser(userEntity, pageable).map(Post::fromEntity);
+        return postEntityRepository.findAllPostsByUserId(userEntity.getId(), pageable);
+
+    }
+
+    public Slice<Post> listByCursor(Integer cursor, Pageable pageable){
+        return postEntityRepository.findAllPostsByCursor(cursor, pageable);
+    }
+
+    public Slice<Post> myByCursor(String userName, Integer cursor, Pageable pageable){
+        UserEntity userEntity = getUserEntityOrException(userName);
+
+        return postEntityRepository.findAllPostsByUserIdAndCursor(userEntity.getId(), cursor, pageable);
+    }
+
+    // 게시글 목록 한 페이지의 좋아요 수, 댓글 수, 좋아요 여부를 게시글 개수와 상관없이 고정된 횟수의 쿼리로 조회
+    public Map<Integer, PostEngagement> getEngagements(List<Post> posts, String userName){
+        if(posts.isEmpty()){
+            return Collections.emptyMap();
+        }
 
+        List<Integer> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        Map<Integer, Long> commentCounts = commentEntityRepository.countAllByPostIds(postIds).stream()
+                .collect(Collectors.toMap(PostCount::getPostId, PostCount::getCount));
+        Map<Integer, Long> pendingDeltas = likeCountCacheRepository.getPendingDeltas(postIds);
+        Set<Integer> likedPostIds = new HashSet<>(likeEntityRepository.findLikedPostIds(userName, postIds));
+
+        return posts.stream().collect(Collectors.toMap(Post::getId, post -> new PostEngagement(
+                post.getLikeCount() + pendingDeltas.getOrDefault(post.getId(), 0L),
+                commentCounts.getOrDefault(post.getId(), 0L),
+                likedPostIds.contains(post.getId())
+        ), (a, b) -> a));
     }
+
     @Transactional
     public void like(Integer postId, String userName){
         UserEntity userEntity = userEntityRepository.findByUsername(userName).orElseThrow(() ->
@@ -100,36 +148,40 @@ public class PostService {
                 new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId))
         );
 
-        // 이미 like를 눌렀는지 확인
-        likeEntityRepository.findByUserAndPost(userEntity, postEntity).ifPresent(it -> {
+        // like 저장 -> 이미 like를 누른 경우 unique 제약으로 insert 되지 않음
+        if(likeEntityRepository.insertIgnore(userEntity.getId(), postId) == 0){
             throw new SnsApplicationException(ErrorCode.ALREADY_LIKE, String.format("userName : %s already liked postId : %d", userName, postId));
-        });
-
-        // like 저장
-        likeEntityRepository.save(LikeEntity.of(userEntity, postEntity));
-
-        // alarm 저장
-        AlarmEntity alarmEntity = alarmEntityRepository.save(AlarmEntity.of(postEntity.getUser(), AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(userEntity.getId(), postEntity.getId())));
-
-        // alarm event 발생
-        alarmService.send(alarmEntity.getId(), postEntity.getUser().getId());
+        }
 
+        // alarm event 발생 -> commit 후 AlarmCoalescer가 모아서 저장/전송
+        eventPublisher.publishEvent(new AlarmTrigger(postEntity.getUser().getId(), AlarmType.NEW_LIKE_ON_POST, userEntity.getId(), postEntity.getId()));
 
+        // 좋아요 수 증가 -> commit 이후에만 (rollback 된 좋아요가 Redis 증감분에 남지 않음)
+        // DB 반영은 LikeCountFlusher가 모아서 처리
+        TransactionUtils.afterCommit(() -> likeCountCacheRepository.increase(postId, 1));
     }
 
     @Transactional
-    public long likeCount(Integer postId){
-        // 포스트가 존재하는지
-        PostEntity postEntity = postEntityRepository.findById(postId).orElseThrow(() ->
-                new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId))
-        );
-
-        // 아래와 같이 요청하면 row 전체를 다 가져오기 때문에 수정필요
-        // List<PostEntity> likes = likeEntityRepository.findAllByPost(postEntity);
-        // return likes.size();
+    public void unlike(Integer postId, String userName){
+        UserEntity userEntity = getUserEntityOrException(userName);
 
-        return likeEntityRepository.countByPost(postEntity);
+        // 좋아요가 없는 경우 아무것도 하지 않음 (여러 번 요청해도 결과가 같음)
+        if(likeEntityRepository.deleteByUserIdAndPostId(userEntity.getId(), postId) > 0){
+            TransactionUtils.afterCommit(() -> likeCountCacheRepository.increase(postId, -1));
+        }
+    }
 
+    public long likeCount(Integer postId){
+        // like 테이블을 매번 count 하지 않고 Redis에 cache된 좋아요 수 사용
+        return likeCountCacheRepository.getLikeCount(postId).orElseGet(() -> {
+            // 포스트가 존재하는지
+            PostEntity postEntity = getPostEntityOrException(postId);
+
+            // DB의 like_count + 아직 반영되지 않은 증감분
+            long likeCount = postEntity.getLikeCount() + likeCountCacheRepository.getPendingDelta(postId);
+            likeCountCacheRepository.setLikeCount(postId, likeCount);
+            return likeCount;
+        });
     }
     @Transactional
     public void comment(Integer postId, String userName, String comment){
@@ -137,19 +189,21 @@ public class PostService {
         UserEntity userEntity = getUserEntityOrException(userName);
 
         commentEntityRepository.save(CommentEntity.of(userEntity, postEntity, comment));
-        // alarm 저장
+        // alarm event 발생 -> commit 후 AlarmCoalescer가 모아서 저장/전송
         // 알람을 받는 사람 -> 글을 게시한 사람 -> postEntity.getUser()
         // 알람이 발생되는 주체 -> 현재 댓글을 쓰는 사람 -> userEntity.getId()
         // 알람이 발생되는 주체 -> 현재 게시글 -> postEntity.getId()
-        AlarmEntity alarmEntity = alarmEntityRepository.save(AlarmEntity.of(postEntity.getUser(), AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs(userEntity.getId(), postEntity.getId())));
-
-        // alarm event 발생
-        alarmService.send(alarmEntity.getId(), postEntity.getUser().getId());
+        eventPublisher.publishEvent(new AlarmTrigger(postEntity.getUser().getId(), AlarmType.NEW_COMMENT_ON_POST, userEntity.getId(), postEntity.getId()));
     }
 
     public Page<Comment> getComments(Integer postId, Pageable pageable){
-        PostEntity postEntity = getPostEntityOrException(postId);
-        return commentEntityRepository.findAllByPost(postEntity, pageable).map(Comment::fromEntity);
+        checkPostExists(postId);
+        return commentEntityRepository.findAllCommentsByPostId(postId, pageable);
+    }
+
+    public Slice<Comment> getCommentsByCursor(Integer postId, Integer cursor, Pageable pageable){
+        checkPostExists(postId);
+        return commentEntityRepository.findAllCommentsByPostIdAndCursor(postId, cursor, pageable);
     }
 
     private PostEntity getPostEntityOrException(Integer postId){
@@ -158,6 +212,13 @@ public class PostService {
         );
     }
 
+    // 게시글 존재 여부만 확인 (body 등 컬럼을 조회하지 않음)
+    private void checkPostExists(Integer postId){
+        if(!postEntityRepository.existsById(postId)){
+            throw new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId));
+        }
+    }
+
     private UserEntity getUserEntityOrException(String userName){
         return userEntityRepository.findByUsername(userName).orElseThrow(() ->
                 new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName))
@@ -0,0 +1,92 @@
+package com.example.service;
+
+import com.example.repository.TokenVersionRepository;
+import com.example.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+
+// stateless token의 폐기 여부 확인
+// 폐기 목록은 Redis에 두고, 서버 메모리에는 bloom filter로만 보관 -> 대부분의 요청은 Redis 조회 없이 통과
+@Slf4j
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    private final TokenVersionRepository tokenVersionRepository;
+    private final long tokenLifetimeMs;
+    private final int bloomBits;
+    private final int bloomHashes;
+
+    private volatile BloomFilter revoked;
+    // 다시 만드는 중인 bloom filter -> 그 사이에 폐기된 token도 빠지지 않도록 같이 추가
+    private volatile BloomFilter rebuilding;
+    // 첫 동기화 전에는 모든 요청을 Redis로 확인
+    private volatile boolean synced = false;
+
+    public TokenRevocationService(TokenVersionRepository tokenVersionRepository,
+                                  RedisMessageListenerContainer redisMessageListenerContainer,
+                                  @Value("${jwt.token.expired-time-ms}") long tokenLifetimeMs,
+                                  @Value("${jwt.revocation.bloom-bits:1048576}") int bloomBits,
+                                  @Value("${jwt.revocation.bloom-hashes:5}") int bloomHashes) {
+        this.tokenVersionRepository = tokenVersionRepository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.bloomBits = bloomBits;
+        this.bloomHashes = bloomHashes;
+        this.revoked = new BloomFilter(bloomBits, bloomHashes);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(TokenVersionRepository.REVOCATION_CHANNEL));
+    }
+
+    public long getVersion(Integer userId){
+        return tokenVersionRepository.getVersion(userId);
+    }
+
+    public void revoke(Integer userId){
+        add(tokenVersionRepository.revoke(userId));
+    }
+
+    public boolean isRevoked(Integer userId, long version){
+        if(synced && !revoked.mightContain(TokenVersionRepository.getMember(userId, version))){
+            return false;
+        }
+        // bloom filter에 걸린 경우 (false positive 가능) -> Redis로 확인
+        return tokenVersionRepository.isRevoked(userId, version);
+    }
+
+    // 만료된 폐기 기록을 정리하고 bloom filter를 다시 만듦
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:60000}")
+    public synchronized void sync(){
+        try{
+            tokenVersionRepository.prune(System.currentTimeMillis() - tokenLifetimeMs);
+
+            BloomFilter next = new BloomFilter(bloomBits, bloomHashes);
+            rebuilding = next;
+            tokenVersionRepository.findAllRevoked().forEach(next::put);
+            revoked = next;
+            rebuilding = null;
+            synced = true;
+        } catch (RuntimeException e){
+            rebuilding = null;
+            log.error("Error occurs while syncing revoked tokens {}", e.toString());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void add(String member){
+        revoked.put(member);
+        BloomFilter next = rebuilding;
+        if(next != null){
+            next.put(member);
+        }
+    }
+}
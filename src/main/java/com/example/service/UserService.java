@@ -4,28 +4,57 @@ import com.example.dto.response.Response;
 import com.example.exception.ErrorCode;
 import com.example.exception.SnsApplicationException;
 import com.example.model.Alarm;
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmDetail;
+import com.example.model.PostTitle;
+import com.example.model.TimeCursor;
 import com.example.model.User;
 import com.example.model.entity.UserEntity;
 import com.example.repository.AlarmEntityRepository;
+import com.example.repository.AlarmUnreadCountRepository;
+import com.example.repository.PostEntityRepository;
+import com.example.repository.PostTitleCacheRepository;
 import com.example.repository.UserCacheRepository;
 import com.example.repository.UserEntityRepository;
 import com.example.utils.JwtTokenUtils;
+import com.example.utils.TimeUtils;
+import com.example.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class UserService {
 
     private final AlarmEntityRepository alarmEntityRepository;
     private final UserEntityRepository userEntityRepository;
-    private final BCryptPasswordEncoder encoder;
+    private final PasswordHasher passwordHasher;
     private final UserCacheRepository userCacheRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final AlarmUnreadCountRepository alarmUnreadCountRepository;
+    private final PostEntityRepository postEntityRepository;
+    private final PostTitleCacheRepository postTitleCacheRepository;
+
+    // 알람 목록에 내려주는 게시글 제목 최대 길이
+    private final static int TITLE_SNIPPET_LENGTH = 30;
 
     @Value("${jwt.secret-key}")
     public String secretKey;
@@ -33,13 +62,47 @@ public class UserService {
     @Value("${jwt.token.expired-time-ms}")
     public Long expiredTimeMs;
 
+    @Value("${jwt.stateless:false}")
+    public boolean stateless;
+
+    // 이 기간이 지난 알람은 조회하지 않음 (AlarmPartitionManager가 partition 단위로 삭제)
+    @Value("${sns.alarm.partition.retention-months:6}")
+    public int alarmRetentionMonths;
+
     // userName이 DB에 존재하는지 찾는 메소드
+    // 서버 메모리 -> Redis -> DB 순서로 조회
     public User loadUserByUserName(String userName){
-        return userCacheRepository.getUser(userName).orElseGet(() -> userEntityRepository.findByUsername(userName).map(User::fromEntity).orElseThrow(() ->
-                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)))
+        return userCacheRepository.getUser(userName, name -> userEntityRepository.findByUsername(name).map(User::fromEntity).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", name)))
         );
     }
 
+    // 여러 user를 한 번에 조회 : Redis MGET -> miss만 DB IN 쿼리 한 번 -> pipeline으로 Redis에 저장
+    // 존재하지 않는 user는 결과에 포함되지 않음
+    public Map<String, User> loadUsersByUserNames(Collection<String> userNames){
+        Map<String, User> users = userCacheRepository.getUsers(userNames);
+
+        List<String> misses = userNames.stream().distinct().filter(it -> !users.containsKey(it)).collect(Collectors.toList());
+        if(!misses.isEmpty()){
+            List<User> loaded = userEntityRepository.findAllByUsernameIn(misses).stream().map(User::fromEntity).collect(Collectors.toList());
+            userCacheRepository.setUsers(loaded);
+            loaded.forEach(it -> users.put(it.getUsername(), it));
+        }
+        return users;
+    }
+
+    public Map<Integer, User> loadUsersByIds(Collection<Integer> userIds){
+        Map<Integer, User> users = userCacheRepository.getUsersByIds(userIds);
+
+        List<Integer> misses = userIds.stream().distinct().filter(it -> !users.containsKey(it)).collect(Collectors.toList());
+        if(!misses.isEmpty()){
+            List<User> loaded = userEntityRepository.findAllById(misses).stream().map(User::fromEntity).collect(Collectors.toList());
+            userCacheRepository.setUsers(loaded);
+            loaded.forEach(it -> users.put(it.getId(), it));
+        }
+        return users;
+    }
+
     @Transactional
     public User join(String username, String password){
         // 회원가입하려는 username으로 회원가입된 user가 있는지
@@ -48,7 +111,7 @@ public class UserService {
         });
 
         // 회원가입 진행 = user 등록
-        UserEntity userEntity = userEntityRepository.save(UserEntity.of(username, encoder.encode(password)));
+        UserEntity userEntity = userEntityRepository.save(UserEntity.of(username, passwordHasher.encode(password)));
         return User.fromEntity(userEntity);
     }
 
@@ -58,20 +121,131 @@ public class UserService {
         userCacheRepository.setUser(user);
 
         // 비밀번호 체크
-        if(!encoder.matches(password, user.getPassword())){
+        if(!passwordHasher.matches(password, user.getPassword())){
             throw new SnsApplicationException(ErrorCode.INVALID_PASSWORD);
         }
 
+        // cost 설정이 바뀌었으면 새 cost로 다시 hash
+        if(passwordHasher.upgradeEncoding(user.getPassword())){
+            upgradePassword(username, password);
+        }
+
         // 토큰 생성
-        String token = JwtTokenUtils.generateToken(username, secretKey, expiredTimeMs);
+        String token = stateless
+                ? JwtTokenUtils.generateToken(user.getUsername(), user.getId(), user.getRole().name(), secretKey, expiredTimeMs, tokenRevocationService.getVersion(user.getId()))
+                : JwtTokenUtils.generateToken(username, secretKey, expiredTimeMs);
 
         return token;
     }
 
+    // 실패해도 로그인은 진행 -> 다음 로그인 때 다시 시도
+    private void upgradePassword(String username, String password){
+        try{
+            userEntityRepository.findByUsername(username).ifPresent(entity -> {
+                entity.setPassword(passwordHasher.encode(password));
+                userCacheRepository.setUser(User.fromEntity(userEntityRepository.save(entity)));
+            });
+        } catch (RuntimeException e){
+            log.error("Error occurs while upgrading password of {} {}", username, e.toString());
+        }
+    }
+
+    private Timestamp alarmSince(){
+        return TimeUtils.startOfMonthBefore(alarmRetentionMonths);
+    }
+
+    // 지금까지 발급된 stateless token 모두 폐기 (탈퇴, 전체 로그아웃 등)
+    public void revokeTokens(Integer userId){
+        tokenRevocationService.revoke(userId);
+    }
+
     public Page<Alarm> alarmList(Integer userId, Pageable pageable){
 //        UserEntity userEntity = userEntityRepository.findByUsername(userName)
 //                .orElseThrow(() -> new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
 
-        return alarmEntityRepository.findAllByUserId(userId, pageable).map(Alarm::fromEntity);
+        return alarmEntityRepository.findAllByUserId(userId, alarmSince(), pageable);
+    }
+
+    public Slice<Alarm> alarmListByCursor(Integer userId, TimeCursor cursor, Pageable pageable){
+        return alarmEntityRepository.findAllByUserIdAndCursor(userId, cursor.getRegisteredAt(), cursor.getId(), alarmSince(), pageable);
+    }
+
+    // 알람 목록 한 페이지의 보낸 사람 이름, 게시글 제목을 알람 개수와 상관없이 고정된 횟수의 조회로 가져옴
+    // user -> loadUsersByIds, 게시글 제목 -> loadTitlesByIds (둘 다 Redis에 없는 것만 IN 쿼리)
+    public Map<Integer, AlarmDetail> getAlarmDetails(List<Alarm> alarms){
+        List<AlarmArgs> args = alarms.stream().map(Alarm::getArgs).filter(Objects::nonNull).collect(Collectors.toList());
+        if(args.isEmpty()){
+            return Collections.emptyMap();
+        }
+
+        Set<Integer> userIds = args.stream()
+                .flatMap(it -> Stream.concat(Stream.of(it.getFromUserId()),
+                        it.getSampleActorIds() == null ? Stream.empty() : it.getSampleActorIds().stream()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Integer> postIds = args.stream().map(AlarmArgs::getTargetId).filter(Objects::nonNull).collect(Collectors.toSet());
+
+        Map<Integer, User> users = userIds.isEmpty() ? Collections.emptyMap() : loadUsersByIds(userIds);
+        Map<Integer, String> titles = postIds.isEmpty() ? Collections.emptyMap() : loadTitlesByIds(postIds);
+
+        return alarms.stream().filter(it -> it.getArgs() != null).collect(Collectors.toMap(Alarm::getId, alarm -> {
+            AlarmArgs alarmArgs = alarm.getArgs();
+            User fromUser = alarmArgs.getFromUserId() == null ? null : users.get(alarmArgs.getFromUserId());
+            List<String> sampleActorNames = alarmArgs.getSampleActorIds() == null ? List.of() : alarmArgs.getSampleActorIds().stream()
+                    .map(users::get).filter(Objects::nonNull).map(User::getUsername).collect(Collectors.toList());
+            return new AlarmDetail(
+                    fromUser == null ? null : fromUser.getUsername(),
+                    sampleActorNames,
+                    alarmArgs.getTargetId() == null ? null : snippet(titles.get(alarmArgs.getTargetId()))
+            );
+        }, (a, b) -> a));
+    }
+
+    // Redis MGET -> miss만 DB IN 쿼리 한 번 -> pipeline으로 Redis에 저장
+    // 삭제된 게시글은 결과에 포함되지 않음
+    private Map<Integer, String> loadTitlesByIds(Collection<Integer> postIds){
+        Map<Integer, String> titles = postTitleCacheRepository.getTitles(postIds);
+
+        List<Integer> misses = postIds.stream().distinct().filter(it -> !titles.containsKey(it)).collect(Collectors.toList());
+        if(!misses.isEmpty()){
+            List<PostTitle> loaded = postEntityRepository.findAllTitlesByIds(misses);
+            postTitleCacheRepository.setTitles(loaded);
+            loaded.forEach(it -> titles.put(it.getPostId(), it.getTitle()));
+        }
+        return titles;
+    }
+
+    private String snippet(String title){
+        if(title == null || title.length() <= TITLE_SNIPPET_LENGTH){
+            return title;
+        }
+        return title.substring(0, TITLE_SNIPPET_LENGTH) + "...";
+    }
+
+    // 읽지 않은 알람 수 -> Redis에 없을 때만 DB count
+    public long unreadAlarmCount(Integer userId){
+        return alarmUnreadCountRepository.getUnreadCount(userId).orElseGet(() -> {
+            long count = alarmEntityRepository.countUnreadByUserId(userId, alarmSince());
+            alarmUnreadCountRepository.setUnreadCount(userId, count);
+            return count;
+        });
+    }
+
+    // alarmIds가 비어있으면 모든 알람 읽음 처리
+    // 읽지 않은 알람 수는 commit 이후에 변경 -> rollback 되면 Redis 값도 그대로
+    @Transactional
+    public int readAlarms(Integer userId, List<Integer> alarmIds){
+        Timestamp now = Timestamp.from(Instant.now());
+        if(alarmIds == null || alarmIds.isEmpty()){
+            int updated = alarmEntityRepository.markAllRead(userId, alarmSince(), now);
+            TransactionUtils.afterCommit(() -> alarmUnreadCountRepository.reset(userId));
+            return updated;
+        }
+
+        int updated = alarmEntityRepository.markRead(userId, alarmIds, now);
+        if(updated > 0){
+            TransactionUtils.afterCommit(() -> alarmUnreadCountRepository.increase(userId, -updated));
+        }
+        return updated;
     }
 }
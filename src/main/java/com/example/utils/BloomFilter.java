@@ -0,0 +1,53 @@
+package com.example.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 값의 존재 여부를 bit 배열로 압축해서 보관
+// false positive는 있을 수 있지만 false negative는 없음 -> 포함된 것으로 나오면 원본 저장소로 다시 확인
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashes;
+
+    public BloomFilter(int numBits, int numHashes) {
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    public void put(String value){
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for(int i = 0; i < numHashes; i++){
+            int index = Math.floorMod(h1 + i * h2, numBits);
+            long mask = 1L << (index & 63);
+            bits.accumulateAndGet(index >>> 6, mask, (current, it) -> current | it);
+        }
+    }
+
+    public boolean mightContain(String value){
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for(int i = 0; i < numHashes; i++){
+            int index = Math.floorMod(h1 + i * h2, numBits);
+            if((bits.get(index >>> 6) & (1L << (index & 63))) == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a 64bit -> 상위/하위 32bit를 두 개의 hash로 사용 (double hashing)
+    private long hash(String value){
+        long hash = 0xcbf29ce484222325L;
+        for(byte b : value.getBytes(StandardCharsets.UTF_8)){
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
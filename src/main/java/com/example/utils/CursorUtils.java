@@ -0,0 +1,80 @@
+package com.example.utils;
+
+import com.example.exception.ErrorCode;
+import com.example.exception.SnsApplicationException;
+import com.example.model.TimeCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// cursor(keyset) 페이징 -> OFFSET, COUNT 없이 마지막으로 조회한 id 이후부터 조회
+public class CursorUtils {
+
+    private final static String CURSOR_PREFIX = "id:";
+    private final static String TIME_CURSOR_PREFIX = "at:";
+    // 첫 페이지 -> 모든 row보다 늦은 시각부터 조회
+    private final static Timestamp MAX_TIME = Timestamp.from(Instant.parse("9999-12-31T00:00:00Z"));
+    private final static int DEFAULT_SIZE = 20;
+    private final static int MAX_SIZE = 100;
+
+    // 마지막으로 조회한 row의 id를 client가 해석하지 않도록 인코딩
+    public static String encode(Integer id){
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // cursor가 없으면 첫 페이지 -> 가장 큰 id보다 작은 row부터 조회
+    public static Integer decode(String cursor){
+        if(cursor == null || cursor.isBlank()){
+            return Integer.MAX_VALUE;
+        }
+
+        try{
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if(!decoded.startsWith(CURSOR_PREFIX)){
+                throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is invalid", cursor));
+            }
+            return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e){
+            throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is invalid", cursor));
+        }
+    }
+
+    // 등록 시각은 DATETIME(6) -> 정밀도를 잃지 않도록 Instant 문자열(나노초 포함)로 인코딩
+    public static String encode(Timestamp registeredAt, Integer id){
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TIME_CURSOR_PREFIX + registeredAt.toInstant() + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TimeCursor decodeTime(String cursor){
+        if(cursor == null || cursor.isBlank()){
+            return new TimeCursor(MAX_TIME, Integer.MAX_VALUE);
+        }
+
+        try{
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(',');
+            if(!decoded.startsWith(TIME_CURSOR_PREFIX) || separator < 0){
+                throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is invalid", cursor));
+            }
+            return new TimeCursor(
+                    Timestamp.from(Instant.parse(decoded.substring(TIME_CURSOR_PREFIX.length(), separator))),
+                    Integer.parseInt(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e){
+            throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is invalid", cursor));
+        }
+    }
+
+    // size+1개를 조회해서 다음 페이지 여부만 판단 (Slice)
+    public static Pageable pageOf(Integer size){
+        if(size == null || size <= 0){
+            return PageRequest.of(0, DEFAULT_SIZE);
+        }
+        return PageRequest.of(0, Math.min(size, MAX_SIZE));
+    }
+}
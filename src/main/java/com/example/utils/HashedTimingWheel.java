@@ -0,0 +1,86 @@
+package com.example.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// thread 하나로 많은 timer를 처리하는 timing wheel
+// tick마다 bucket 하나만 확인 -> timer 수와 관계없이 등록/실행 비용이 일정
+// 정확도는 tick 단위 (heartbeat, idle 검사 용도)
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private final long tickMs;
+    private final Queue<Timeout<T>>[] buckets;
+    private final Consumer<T> handler;
+    // 다른 thread에서 등록한 timer -> ticker thread가 tick마다 bucket으로 옮김
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+    // ticker thread에서만 변경
+    private long tick = 0;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickMs, int wheelSize, Consumer<T> handler) {
+        this.tickMs = tickMs;
+        this.handler = handler;
+        this.buckets = new Queue[wheelSize];
+        for(int i = 0; i < wheelSize; i++){
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(name + "-"));
+        this.ticker.scheduleAtFixedRate(this::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    // delayMs 후에 handler 실행 (한 번만 실행, 반복하려면 handler에서 다시 등록)
+    public void schedule(T item, long delayMs){
+        pending.add(new Timeout<>(item, Math.max(1, (delayMs + tickMs - 1) / tickMs)));
+    }
+
+    public void stop(){
+        ticker.shutdownNow();
+    }
+
+    private void advance(){
+        tick++;
+
+        Timeout<T> timeout;
+        while((timeout = pending.poll()) != null){
+            timeout.deadline = tick + timeout.delayTicks;
+            buckets[(int) (timeout.deadline % buckets.length)].add(timeout);
+        }
+
+        // 현재 bucket에서 deadline이 지난 timer 실행 -> 아직 남은 timer(다음 바퀴)는 그대로 둠
+        Queue<Timeout<T>> bucket = buckets[(int) (tick % buckets.length)];
+        int size = bucket.size();
+        for(int i = 0; i < size; i++){
+            Timeout<T> current = bucket.poll();
+            if(current.deadline > tick){
+                bucket.add(current);
+                continue;
+            }
+            try{
+                handler.accept(current.item);
+            } catch (RuntimeException e){
+                log.error("Error occurs while running timer {}", e.toString());
+            }
+        }
+    }
+
+    private static class Timeout<T> {
+        private final T item;
+        private final long delayTicks;
+        private long deadline;
+
+        private Timeout(T item, long delayTicks) {
+            this.item = item;
+            this.delayTicks = delayTicks;
+        }
+    }
+}
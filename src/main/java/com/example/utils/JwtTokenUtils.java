@@ -1,48 +0,0 @@
-package com.example.utils;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.util.Date;
-
-public class JwtTokenUtils {
-
-    public static String getUserName(String token, String key){
-        return extractClaims(token, key).get("username", String.class);
-    }
-
-    public static boolean isExpired(String token, String key){
-        Date expiredDate = extractClaims(token, key).getExpiration();
-        // 만료되었다면 true
-        return expiredDate.before(new Date());
-    }
-
-    public static Claims extractClaims(String token, String key){
-        return Jwts.parserBuilder().setSigningKey(getKey(key))
-                .build().parseClaimsJws(token).getBody();
-    }
-
-    // key는 암호화에 사용
-    public static String generateToken(String username, String key, long expiredTimeMs){
-        Claims claims = Jwts.claims();
-
-        claims.put("username", username);
-
-        return Jwts.builder()
-                .setClaims(claims)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis()+expiredTimeMs))
-                .signWith(getKey(key), SignatureAlgorithm.HS256)
-                .compact();
-    }
-
-    private static Key getKey(String key){
-        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-}
@@ -0,0 +1,21 @@
+package com.example.utils;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.Date;
+
+public class TimeUtils {
+
+    // JPQL constructor expression은 timestamp 컬럼을 java.util.Date 타입으로 넘겨줌
+    public static Timestamp toTimestamp(Date date){
+        if(date == null || date instanceof Timestamp){
+            return (Timestamp) date;
+        }
+        return new Timestamp(date.getTime());
+    }
+
+    // months개월 전 달의 1일 00:00 -> 알람 보관 기간 시작 (partition 경계와 같음)
+    public static Timestamp startOfMonthBefore(int months){
+        return Timestamp.valueOf(YearMonth.now().minusMonths(months).atDay(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+public class TransactionUtils {
+
+    // 진행 중인 transaction이 있으면 commit 이후에 실행 (rollback 되면 실행하지 않음), 없으면 바로 실행
+    // commit 이후의 실패는 요청을 실패시키지 않고 log만 남김 (DB에는 이미 반영됨)
+    public static void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            run(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                run(action);
+            }
+        });
+    }
+
+    private static void run(Runnable action){
+        try{
+            action.run();
+        } catch (RuntimeException e){
+            log.error("Error occurs while running after commit {}", e.toString());
+        }
+    }
+}
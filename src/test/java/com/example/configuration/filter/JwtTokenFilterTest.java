@@ -0,0 +1,72 @@
+package com.example.configuration.filter;
+
+import com.example.dto.request.PostCreateRequest;
+import com.example.model.UserRole;
+import com.example.service.PostService;
+import com.example.service.TokenRevocationService;
+import com.example.service.UserService;
+import com.example.utils.JwtTokenUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// stateless 모드 -> token의 claims로 principal 생성, 폐기된 version이면 인증하지 않음
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "jwt.stateless=true")
+public class JwtTokenFilterTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${jwt.secret-key}")
+    private String key;
+
+    @MockBean private PostService postService;
+    @MockBean private UserService userService;
+    @MockBean private TokenRevocationService tokenRevocationService;
+
+    @Test
+    void 폐기되지_않은_stateless_token은_user_조회없이_인증되는_경우() throws Exception {
+        String token = JwtTokenUtils.generateToken("username", 1, UserRole.USER.name(), key, 60_000L, 0L);
+        when(tokenRevocationService.isRevoked(1, 0L)).thenReturn(false);
+
+        mockMvc.perform(post("/api/v1/posts")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new PostCreateRequest("title", "body")))
+                ).andDo(print())
+                .andExpect(status().isOk());
+
+        verify(userService, never()).loadUserByUserName(anyString());
+    }
+
+    @Test
+    void 폐기된_stateless_token으로_요청하는_경우() throws Exception {
+        String token = JwtTokenUtils.generateToken("username", 1, UserRole.USER.name(), key, 60_000L, 0L);
+        when(tokenRevocationService.isRevoked(1, 0L)).thenReturn(true);
+
+        mockMvc.perform(post("/api/v1/posts")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new PostCreateRequest("title", "body")))
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+
+        verify(postService, never()).create(anyString(), anyString(), anyString());
+    }
+}
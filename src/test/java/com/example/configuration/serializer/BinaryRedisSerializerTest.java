@@ -0,0 +1,229 @@
+package com.example.configuration.serializer;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+import com.example.model.User;
+import com.example.model.UserRole;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+public class BinaryRedisSerializerTest {
+
+    private final static byte MAGIC = (byte) 0xB1;
+
+    private final Jackson2JsonRedisSerializer<User> jsonSerializer = new Jackson2JsonRedisSerializer<>(User.class);
+    private final BinaryRedisSerializer<User> serializer = new BinaryRedisSerializer<>(new UserBinaryCodec(), jsonSerializer);
+    private final BinaryRedisSerializer<AlarmEvent> alarmEventSerializer = new BinaryRedisSerializer<>(new AlarmEventBinaryCodec(), null);
+
+    @Test
+    void 모든_필드가_있는_user를_저장하고_읽는_경우() {
+        User user = new User(1, "username", "password", UserRole.ADMIN,
+                new Timestamp(1000L), new Timestamp(2000L), new Timestamp(3000L));
+
+        assertUser(user, serializer.deserialize(serializer.serialize(user)));
+    }
+
+    @Test
+    void nullable_필드가_모두_null인_user를_저장하고_읽는_경우() {
+        User user = new User(null, null, null, null, null, null, null);
+
+        assertUser(user, serializer.deserialize(serializer.serialize(user)));
+    }
+
+    @Test
+    void version_1로_저장된_user를_읽는_경우() throws IOException {
+        // 배포된 version 1 형식을 직접 작성 -> codec이 바뀌어도 기존 payload를 읽을 수 있어야 함
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(MAGIC);
+        out.writeByte(1);
+        out.writeByte(1);
+        out.writeBoolean(true);
+        out.writeInt(7);
+        out.writeBoolean(true);
+        out.writeUTF("username");
+        out.writeBoolean(true);
+        out.writeUTF("password");
+        out.writeBoolean(true);
+        out.writeUTF("USER");
+        out.writeBoolean(true);
+        out.writeLong(1000L);
+        out.writeBoolean(false);
+        out.writeBoolean(false);
+
+        assertUser(new User(7, "username", "password", UserRole.USER, new Timestamp(1000L), null, null),
+                serializer.deserialize(bytes.toByteArray()));
+    }
+
+    @Test
+    void 이전_version_payload를_새_version_codec으로_읽는_경우() {
+        BinaryRedisSerializer<Versioned> v1 = new BinaryRedisSerializer<>(new VersionedCodec((byte) 1), null);
+        BinaryRedisSerializer<Versioned> v2 = new BinaryRedisSerializer<>(new VersionedCodec((byte) 2), null);
+
+        // version 1에는 없는 필드 -> 기본값
+        Versioned read = v2.deserialize(v1.serialize(new Versioned("name", "ignored")));
+        Assertions.assertEquals("name", read.name);
+        Assertions.assertEquals(VersionedCodec.DEFAULT_NICKNAME, read.nickname);
+
+        // 더 최신 version으로 저장된 payload -> 읽지 않고 miss
+        Assertions.assertNull(v1.deserialize(v2.serialize(new Versioned("name", "nickname"))));
+    }
+
+    @Test
+    void binary_적용_전에_JSON으로_저장된_user를_읽는_경우() {
+        User user = new User(1, "username", "password", UserRole.USER, new Timestamp(1000L), null, null);
+
+        assertUser(user, serializer.deserialize(jsonSerializer.serialize(user)));
+    }
+
+    @Test
+    void 다른_type으로_저장된_payload는_읽지_않는_경우() {
+        byte[] payload = serializer.serialize(new User(1, "username", "password", UserRole.USER, null, null, null));
+        payload[1] = 9;
+
+        Assertions.assertNull(serializer.deserialize(payload));
+    }
+
+    @Test
+    void magic_byte가_아니고_JSON도_아닌_payload는_읽지_않는_경우() {
+        Assertions.assertNull(serializer.deserialize(new byte[]{0x00, 0x01, 0x02}));
+        Assertions.assertNull(serializer.deserialize("not json".getBytes(StandardCharsets.UTF_8)));
+        // legacy serializer가 없으면 magic byte가 아닌 payload는 모두 miss
+        Assertions.assertNull(new BinaryRedisSerializer<>(new UserBinaryCodec(), null)
+                .deserialize(jsonSerializer.serialize(new User(1, "username", "password", UserRole.USER, null, null, null))));
+    }
+
+    @Test
+    void 중간에_잘린_payload는_읽지_않는_경우() {
+        byte[] payload = serializer.serialize(new User(1, "username", "password", UserRole.USER, null, null, null));
+        byte[] truncated = new byte[payload.length - 4];
+        System.arraycopy(payload, 0, truncated, 0, truncated.length);
+
+        Assertions.assertNull(serializer.deserialize(truncated));
+        Assertions.assertNull(serializer.deserialize(new byte[]{MAGIC, 1}));
+    }
+
+    @Test
+    void 모든_필드가_있는_알람을_저장하고_읽는_경우() {
+        AlarmEvent event = new AlarmEvent(1, 2, AlarmType.NEW_LIKE_ON_POST,
+                new AlarmArgs(4, 10, 3, List.of(2, 3, 4)), new Timestamp(1000L));
+
+        AlarmEvent read = alarmEventSerializer.deserialize(alarmEventSerializer.serialize(event));
+
+        assertAlarmEvent(event, read);
+        // 받는 user는 쓰지 않음
+        Assertions.assertNull(read.getUserId());
+    }
+
+    @Test
+    void args가_null인_알람을_저장하고_읽는_경우() {
+        AlarmEvent event = new AlarmEvent(1, 2, AlarmType.NEW_COMMENT_ON_POST, null, new Timestamp(1000L));
+
+        AlarmEvent read = alarmEventSerializer.deserialize(alarmEventSerializer.serialize(event));
+
+        Assertions.assertNotNull(read);
+        Assertions.assertEquals(AlarmType.NEW_COMMENT_ON_POST, read.getAlarmType());
+        // args의 필드는 모두 null, sampleActorIds는 빈 목록으로 읽힘
+        Assertions.assertNull(read.getArgs().getFromUserId());
+        Assertions.assertNull(read.getArgs().getTargetId());
+        Assertions.assertNull(read.getArgs().getCount());
+        Assertions.assertEquals(List.of(), read.getArgs().getSampleActorIds());
+    }
+
+    @Test
+    void sampleActorIds가_비어있고_registeredAt이_null인_알람을_저장하고_읽는_경우() {
+        AlarmEvent event = new AlarmEvent(1, 2, AlarmType.NEW_LIKE_ON_POST,
+                new AlarmArgs(4, 10, 1, List.of()), null);
+
+        assertAlarmEvent(event, alarmEventSerializer.deserialize(alarmEventSerializer.serialize(event)));
+    }
+
+    @Test
+    void 내용이_없는_알람을_저장하고_읽는_경우() {
+        AlarmEvent event = new AlarmEvent(1, 2);
+
+        AlarmEvent read = alarmEventSerializer.deserialize(alarmEventSerializer.serialize(event));
+
+        Assertions.assertNotNull(read);
+        Assertions.assertEquals(1, read.getAlarmId());
+        Assertions.assertNull(read.getAlarmType());
+        Assertions.assertNull(read.getRegisteredAt());
+    }
+
+    private void assertAlarmEvent(AlarmEvent expected, AlarmEvent actual) {
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals(expected.getAlarmId(), actual.getAlarmId());
+        Assertions.assertEquals(expected.getAlarmType(), actual.getAlarmType());
+        Assertions.assertEquals(expected.getArgs().getFromUserId(), actual.getArgs().getFromUserId());
+        Assertions.assertEquals(expected.getArgs().getTargetId(), actual.getArgs().getTargetId());
+        Assertions.assertEquals(expected.getArgs().getCount(), actual.getArgs().getCount());
+        Assertions.assertEquals(expected.getArgs().getSampleActorIds(), actual.getArgs().getSampleActorIds());
+        Assertions.assertEquals(expected.getRegisteredAt(), actual.getRegisteredAt());
+    }
+
+    private void assertUser(User expected, User actual) {
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals(expected.getId(), actual.getId());
+        Assertions.assertEquals(expected.getUsername(), actual.getUsername());
+        Assertions.assertEquals(expected.getPassword(), actual.getPassword());
+        Assertions.assertEquals(expected.getRole(), actual.getRole());
+        Assertions.assertEquals(expected.getRegisteredAt(), actual.getRegisteredAt());
+        Assertions.assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        Assertions.assertEquals(expected.getDeletedAt(), actual.getDeletedAt());
+    }
+
+    private static class Versioned {
+        private final String name;
+        private final String nickname;
+
+        private Versioned(String name, String nickname) {
+            this.name = name;
+            this.nickname = nickname;
+        }
+    }
+
+    // version 1 : name / version 2 : name, nickname
+    private static class VersionedCodec implements BinaryCodec<Versioned> {
+        private final static String DEFAULT_NICKNAME = "none";
+        private final byte version;
+
+        private VersionedCodec(byte version) {
+            this.version = version;
+        }
+
+        @Override
+        public byte getType() {
+            return 100;
+        }
+
+        @Override
+        public byte getVersion() {
+            return version;
+        }
+
+        @Override
+        public void write(Versioned value, DataOutputStream out) throws IOException {
+            writeString(value.name, out);
+            if(version >= 2){
+                writeString(value.nickname, out);
+            }
+        }
+
+        @Override
+        public Versioned read(DataInputStream in, byte version) throws IOException {
+            String name = readString(in);
+            String nickname = version >= 2 ? readString(in) : DEFAULT_NICKNAME;
+            return new Versioned(name, nickname);
+        }
+    }
+}
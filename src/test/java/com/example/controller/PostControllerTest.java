@@ -16,11 +16,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -204,6 +207,37 @@ public class PostControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @WithMockUser
+    @Test
+    void 게시글목록_커서_페이징() throws Exception {
+        when(postService.listByCursor(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/v1/posts/cursor")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @WithMockUser
+    @Test
+    void 게시글목록_커서_페이징시_커서가_잘못된_경우() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/cursor")
+                        .param("cursor", "invalid-cursor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithAnonymousUser
+    @Test
+    void 게시글목록_커서_페이징_요청시_로그인_하지_않은_경우() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/cursor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
     @WithMockUser
     @Test
     void 나의_게시글목록() throws Exception {
@@ -258,6 +292,24 @@ public class PostControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @WithMockUser
+    @Test
+    void 좋아요취소기능() throws Exception {
+        mockMvc.perform(delete("/api/v1/posts/1/likes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @WithAnonymousUser
+    @Test
+    void 좋아요취소시_로그인_하지_않은_경우() throws Exception {
+        mockMvc.perform(delete("/api/v1/posts/1/likes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
     @WithMockUser
     @Test
     void 댓글기능() throws Exception {
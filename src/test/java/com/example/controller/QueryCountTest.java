@@ -0,0 +1,115 @@
+package com.example.controller;
+
+import com.example.model.entity.CommentEntity;
+import com.example.model.entity.PostEntity;
+import com.example.model.entity.UserEntity;
+import com.example.repository.CommentEntityRepository;
+import com.example.repository.LikeCountCacheRepository;
+import com.example.repository.PostEntityRepository;
+import com.example.repository.UserEntityRepository;
+import com.example.support.QueryCountInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// endpoint 별로 실행되는 SQL 개수를 고정 -> N+1이 다시 생기면 테스트 실패
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.support.QueryCountInspector")
+public class QueryCountTest {
+
+    private final static String WRITER = "query_count_writer0";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManager entityManager;
+    @Autowired private UserEntityRepository userEntityRepository;
+    @Autowired private PostEntityRepository postEntityRepository;
+    @Autowired private CommentEntityRepository commentEntityRepository;
+
+    @MockBean private LikeCountCacheRepository likeCountCacheRepository;
+
+    private PostEntity post;
+
+    @BeforeEach
+    void setUp(){
+        // 작성자가 여러 명이어야 row 마다 user를 조회하는지 확인 가능
+        List<UserEntity> users = new ArrayList<>();
+        for(int i = 0; i < 3; i++){
+            users.add(userEntityRepository.save(UserEntity.of("query_count_writer" + i, "password")));
+        }
+
+        for(int i = 0; i < 15; i++){
+            PostEntity saved = postEntityRepository.save(PostEntity.of("title" + i, "body" + i, users.get(i % users.size())));
+            if(post == null){
+                post = saved;
+            }
+        }
+
+        for(int i = 0; i < 15; i++){
+            commentEntityRepository.save(CommentEntity.of(users.get(i % users.size()), post, "comment" + i));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        QueryCountInspector.reset();
+    }
+
+    @WithMockUser(username = WRITER)
+    @Test
+    void 게시글목록() throws Exception {
+        mockMvc.perform(get("/api/v1/posts").param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        // 게시글 + 작성자(join), count, 댓글 수, 좋아요 여부
+        Assertions.assertEquals(4, QueryCountInspector.count());
+    }
+
+    @WithMockUser(username = WRITER)
+    @Test
+    void 게시글목록_커서_페이징() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/cursor").param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        // 게시글 + 작성자(join), 댓글 수, 좋아요 여부
+        Assertions.assertEquals(3, QueryCountInspector.count());
+    }
+
+    @WithMockUser(username = WRITER)
+    @Test
+    void 나의_게시글목록() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/my").param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        // 유저, 게시글 + 작성자(join), count, 댓글 수, 좋아요 여부
+        Assertions.assertEquals(5, QueryCountInspector.count());
+    }
+
+    @WithMockUser(username = WRITER)
+    @Test
+    void 댓글목록() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/" + post.getId() + "/comments").param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        // 게시글 존재 여부, 댓글 + 작성자(join), count
+        Assertions.assertEquals(3, QueryCountInspector.count());
+    }
+}
@@ -133,4 +133,22 @@ public class UserControllerTest {
                 .andExpect(status().isUnauthorized());
 
     }
+
+    @WithAnonymousUser
+    @Test
+    public void 읽지_않은_알람수_요청시_로그인하지_않은_경우() throws Exception{
+        mvc.perform(get("/api/v1/users/alarm/unread-count")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @WithAnonymousUser
+    @Test
+    public void 토큰_폐기_요청시_로그인하지_않은_경우() throws Exception{
+        mvc.perform(post("/api/v1/users/tokens/revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,102 @@
+package com.example.repository;
+
+import com.example.model.User;
+import com.example.model.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// client-side caching(RESP3 tracking) 모드 -> Redis 6 이상이 localhost:6379에 있어야 함
+@SpringBootTest(properties = {
+        "sns.redis.client-side-caching.enabled=true",
+        "spring.redis.host=localhost",
+        "spring.redis.port=6379"
+})
+public class UserCacheRepositoryTest {
+
+    private final static String USERNAME = "tracking-test-user";
+
+    @Autowired private UserCacheRepository userCacheRepository;
+    @Autowired private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stringRedisTemplate.delete(List.of("USER:" + USERNAME, "USER_ID:" + 990001));
+    }
+
+    @Test
+    void 다른_connection에서_변경된_user를_다시_조회하는_경우() throws InterruptedException {
+        userCacheRepository.setUser(user("before"));
+        // 조회 -> 서버 메모리에 보관, tracking 시작
+        Assertions.assertEquals("before", userCacheRepository.getUser(USERNAME, this::failLoader).getPassword());
+
+        // tracking connection이 아닌 다른 connection으로 변경 -> Redis가 invalidation push 전송
+        userCacheRepository.setUser(user("after"));
+
+        String password = null;
+        long deadline = System.currentTimeMillis() + 2000L;
+        while(System.currentTimeMillis() < deadline){
+            password = userCacheRepository.getUser(USERNAME, this::failLoader).getPassword();
+            if("after".equals(password)){
+                break;
+            }
+            Thread.sleep(20L);
+        }
+        Assertions.assertEquals("after", password);
+    }
+
+    @Test
+    void 동시에_cache_miss가_나면_한_요청만_loader를_실행하는_경우() throws Exception {
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<User>> results = new ArrayList<>();
+        for(int i = 0; i < threads; i++){
+            results.add(executor.submit(() -> {
+                start.await();
+                return userCacheRepository.getUser(USERNAME, name -> {
+                    loads.incrementAndGet();
+                    sleep(200L);
+                    return user("loaded");
+                });
+            }));
+        }
+        start.countDown();
+
+        for(Future<User> result : results){
+            Assertions.assertEquals("loaded", result.get(5, TimeUnit.SECONDS).getPassword());
+        }
+        Assertions.assertEquals(1, loads.get());
+        executor.shutdown();
+    }
+
+    private User user(String password){
+        return new User(990001, USERNAME, password, UserRole.USER, null, null, null);
+    }
+
+    private User failLoader(String userName){
+        throw new AssertionError("user should be read from cache");
+    }
+
+    private void sleep(long millis){
+        try{
+            Thread.sleep(millis);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.service;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+import com.example.repository.AlarmPresenceRepository;
+import com.example.repository.AlarmStreamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+public class AlarmBrokerTest {
+
+    @Autowired private AlarmBroker alarmBroker;
+    @Autowired private AlarmPresenceRepository alarmPresenceRepository;
+    @Autowired private AlarmStreamRepository alarmStreamRepository;
+    @Autowired private StringRedisTemplate stringRedisTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @MockBean private AlarmService alarmService;
+
+    @Test
+    void 현재_서버에_연결된_유저에게_알람을_전송하는_경우() {
+        Integer userId = 900001;
+        alarmPresenceRepository.register(userId);
+
+        alarmBroker.publish(new AlarmEvent(1, userId));
+        alarmBroker.flush();
+
+        verify(alarmService, timeout(1000)).send(argThat(it -> it.getAlarmId() == 1));
+        alarmPresenceRepository.unregister(userId);
+    }
+
+    @Test
+    void 연결된_서버가_없는_유저에게_알람을_전송하는_경우() {
+        Integer userId = 900002;
+
+        alarmBroker.publish(new AlarmEvent(2, userId));
+        alarmBroker.flush();
+
+        verify(alarmService, after(500).never()).send(argThat(it -> it.getAlarmId() == 2));
+    }
+
+    @Test
+    void 전달된_알람이_재연결용_stream에_저장되는_경우() {
+        Integer userId = 900004;
+
+        alarmBroker.publish(new AlarmEvent(4, userId));
+        alarmBroker.publish(new AlarmEvent(5, userId, AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(7, 8), null));
+        alarmBroker.flush();
+
+        List<AlarmEvent> events = alarmStreamRepository.findAfter(userId, 4);
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(5, events.get(0).getAlarmId());
+        // 재전송할 때 알람 내용도 함께 복원
+        Assertions.assertEquals(AlarmType.NEW_LIKE_ON_POST, events.get(0).getAlarmType());
+        Assertions.assertEquals(8, events.get(0).getArgs().getTargetId());
+    }
+
+    @Test
+    void 다른_서버에서_pubsub으로_알람을_받는_경우() throws Exception {
+        Integer userId = 900003;
+        String batch = objectMapper.writeValueAsString(List.of(new AlarmEvent(3, userId)));
+
+        stringRedisTemplate.convertAndSend(AlarmBroker.getChannel(alarmPresenceRepository.getNodeId()), batch);
+
+        verify(alarmService, timeout(2000)).send(argThat(it -> it.getAlarmId() == 3));
+    }
+}
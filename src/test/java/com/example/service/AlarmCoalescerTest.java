@@ -0,0 +1,34 @@
+package com.example.service;
+
+import com.example.model.AlarmTrigger;
+import com.example.model.AlarmType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+// 예약된 flush가 테스트 중간에 실행되지 않도록 window를 길게 -> flush는 테스트에서 직접 호출
+@SpringBootTest(properties = "sns.alarm.coalesce.window-ms=3600000")
+public class AlarmCoalescerTest {
+
+    @Autowired private AlarmCoalescer alarmCoalescer;
+
+    @MockBean private AlarmWriter alarmWriter;
+
+    @Test
+    void 같은_게시글의_좋아요_알람이_하나로_모이는_경우() {
+        alarmCoalescer.add(new AlarmTrigger(1, AlarmType.NEW_LIKE_ON_POST, 2, 10));
+        alarmCoalescer.add(new AlarmTrigger(1, AlarmType.NEW_LIKE_ON_POST, 3, 10));
+        alarmCoalescer.add(new AlarmTrigger(1, AlarmType.NEW_LIKE_ON_POST, 4, 10));
+        alarmCoalescer.flush();
+
+        verify(alarmWriter).enqueue(eq(1), eq(AlarmType.NEW_LIKE_ON_POST), argThat(args ->
+                args.getCount() == 3 && args.getSampleActorIds().equals(List.of(2, 3, 4)) && args.getFromUserId() == 4));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.service;
+
+import com.example.fixture.PostEntityFixture;
+import com.example.fixture.UserEntityFixture;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmTrigger;
+import com.example.model.AlarmType;
+import com.example.model.entity.AlarmEntity;
+import com.example.model.entity.PostEntity;
+import com.example.model.entity.UserEntity;
+import com.example.repository.AlarmEntityRepository;
+import com.example.repository.AlarmUnreadCountRepository;
+import com.example.repository.CommentEntityRepository;
+import com.example.repository.LikeCountCacheRepository;
+import com.example.repository.LikeEntityRepository;
+import com.example.repository.PostEntityRepository;
+import com.example.repository.UserEntityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 좋아요/댓글이 commit 된 경우에만 알람이 AlarmCoalescer -> AlarmWriter -> AlarmBroker로 전달
+// 예약된 coalesce flush는 막고 테스트에서 직접 flush
+@SpringBootTest(properties = "sns.alarm.coalesce.window-ms=3600000")
+public class AlarmEventListenerTest {
+
+    private final static String USERNAME = "alarm_actor";
+
+    @Autowired private PostService postService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @SpyBean private AlarmCoalescer alarmCoalescer;
+
+    @MockBean private PostEntityRepository postEntityRepository;
+    @MockBean private UserEntityRepository userEntityRepository;
+    @MockBean private LikeEntityRepository likeEntityRepository;
+    @MockBean private CommentEntityRepository commentEntityRepository;
+    @MockBean private LikeCountCacheRepository likeCountCacheRepository;
+    @MockBean private AlarmEntityRepository alarmEntityRepository;
+    @MockBean private AlarmUnreadCountRepository alarmUnreadCountRepository;
+    @MockBean private AlarmBroker alarmBroker;
+
+    private final AtomicInteger alarmIds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        UserEntity actor = UserEntityFixture.get(USERNAME, "", 1);
+        when(userEntityRepository.findByUsername(USERNAME)).thenReturn(Optional.of(actor));
+        when(likeEntityRepository.insertIgnore(any(), any())).thenReturn(1);
+        // 저장된 알람에 id 부여
+        when(alarmEntityRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<AlarmEntity> saved = new ArrayList<>();
+            for(AlarmEntity entity : invocation.<Iterable<AlarmEntity>>getArgument(0)){
+                entity.setId(alarmIds.incrementAndGet());
+                saved.add(entity);
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    void 좋아요가_commit된_경우_알람을_전송하는_경우() {
+        Integer postId = 31;
+        Integer writerId = 301;
+        givenPost(postId, writerId);
+
+        postService.like(postId, USERNAME);
+
+        verify(alarmCoalescer).add(argThat(trigger -> isTrigger(trigger, writerId, AlarmType.NEW_LIKE_ON_POST)));
+        alarmCoalescer.flush();
+        verify(alarmBroker, timeout(2000)).publish(argThat((AlarmEvent event) -> writerId.equals(event.getUserId())));
+    }
+
+    @Test
+    void 좋아요_transaction이_rollback된_경우_알람을_전송하지_않는_경우() {
+        Integer postId = 32;
+        Integer writerId = 302;
+        givenPost(postId, writerId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postService.like(postId, USERNAME);
+            status.setRollbackOnly();
+        });
+
+        verify(alarmCoalescer, never()).add(argThat(trigger -> writerId.equals(trigger.getReceiverId())));
+        alarmCoalescer.flush();
+        verify(alarmBroker, after(500).never()).publish(argThat((AlarmEvent event) -> writerId.equals(event.getUserId())));
+    }
+
+    @Test
+    void 댓글이_commit된_경우_알람을_전송하는_경우() {
+        Integer postId = 33;
+        Integer writerId = 303;
+        givenPost(postId, writerId);
+
+        postService.comment(postId, USERNAME, "comment");
+
+        verify(alarmCoalescer).add(argThat(trigger -> isTrigger(trigger, writerId, AlarmType.NEW_COMMENT_ON_POST)));
+        alarmCoalescer.flush();
+        verify(alarmBroker, timeout(2000)).publish(argThat((AlarmEvent event) -> writerId.equals(event.getUserId())));
+    }
+
+    @Test
+    void 댓글_transaction이_rollback된_경우_알람을_전송하지_않는_경우() {
+        Integer postId = 34;
+        Integer writerId = 304;
+        givenPost(postId, writerId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postService.comment(postId, USERNAME, "comment");
+            status.setRollbackOnly();
+        });
+
+        verify(alarmCoalescer, never()).add(argThat(trigger -> writerId.equals(trigger.getReceiverId())));
+        alarmCoalescer.flush();
+        verify(alarmBroker, after(500).never()).publish(argThat((AlarmEvent event) -> writerId.equals(event.getUserId())));
+    }
+
+    private void givenPost(Integer postId, Integer writerId){
+        PostEntity post = PostEntityFixture.get("writer", postId, writerId);
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(post));
+    }
+
+    private boolean isTrigger(AlarmTrigger trigger, Integer receiverId, AlarmType alarmType){
+        return receiverId.equals(trigger.getReceiverId()) && trigger.getAlarmType() == alarmType;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.service;
+
+import com.example.repository.DistributedLockRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AlarmPartitionManagerTest {
+
+    private final static YearMonth NOW = YearMonth.of(2026, 1);
+
+    @Test
+    void 마지막_partition_다음_달부터_미리_만들_달까지_생성하는_경우() {
+        TreeSet<YearMonth> months = new TreeSet<>(List.of(YearMonth.of(2025, 11), YearMonth.of(2025, 12)));
+
+        // 연도가 바뀌는 경우 포함
+        Assertions.assertEquals(List.of(YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3)),
+                AlarmPartitionManager.monthsToCreate(months, NOW, 2));
+    }
+
+    @Test
+    void 이미_미리_만들어진_경우_생성하지_않는_경우() {
+        TreeSet<YearMonth> months = new TreeSet<>(List.of(YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3)));
+
+        Assertions.assertTrue(AlarmPartitionManager.monthsToCreate(months, NOW, 2).isEmpty());
+    }
+
+    @Test
+    void partition이_없으면_이번_달부터_생성하는_경우() {
+        Assertions.assertEquals(List.of(YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3)),
+                AlarmPartitionManager.monthsToCreate(new TreeSet<>(), NOW, 2));
+    }
+
+    @Test
+    void 보관_기간_이전_달의_partition만_삭제하는_경우() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for(YearMonth month = YearMonth.of(2025, 5); !month.isAfter(NOW); month = month.plusMonths(1)){
+            months.add(month);
+        }
+
+        // 보관 기간 6개월 -> 2025-07 ~ 2026-01 유지 (UserService.alarmSince와 같은 기준)
+        Assertions.assertEquals(new TreeSet<>(List.of(YearMonth.of(2025, 5), YearMonth.of(2025, 6))),
+                AlarmPartitionManager.monthsToDrop(months, NOW, 6));
+    }
+
+    @Test
+    void 보관_기간_안의_partition만_있으면_삭제하지_않는_경우() {
+        TreeSet<YearMonth> months = new TreeSet<>(List.of(YearMonth.of(2025, 7), YearMonth.of(2025, 12)));
+
+        Assertions.assertTrue(AlarmPartitionManager.monthsToDrop(months, NOW, 6).isEmpty());
+    }
+
+    @Test
+    void 다른_서버가_lock을_가지고_있으면_실행하지_않는_경우() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DistributedLockRepository distributedLockRepository = mock(DistributedLockRepository.class);
+        when(distributedLockRepository.tryLock(anyString(), any())).thenReturn(Optional.empty());
+
+        new AlarmPartitionManager(jdbcTemplate, distributedLockRepository, 6, 2).maintain();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void 실행이_끝나면_lock을_해제하는_경우() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DistributedLockRepository distributedLockRepository = mock(DistributedLockRepository.class);
+        when(distributedLockRepository.tryLock(anyString(), any())).thenReturn(Optional.of("token"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any())).thenReturn(List.of());
+
+        new AlarmPartitionManager(jdbcTemplate, distributedLockRepository, 6, 2).maintain();
+
+        verify(distributedLockRepository).release(anyString(), eq("token"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.service;
+
+import com.example.configuration.serializer.AlarmEventBinaryCodec;
+import com.example.configuration.serializer.BinaryRedisSerializer;
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+import com.example.model.SseConnection;
+import com.example.model.SseEncoding;
+import com.example.repository.AlarmPresenceRepository;
+import com.example.repository.AlarmStreamRepository;
+import com.example.repository.EmitterRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// heartbeat 100ms, 연결 최대 유지 시간 1초
+@SpringBootTest(properties = {
+        "sns.alarm.sse.heartbeat-interval-ms=100",
+        "sns.alarm.sse.max-lifetime-ms=1000"
+})
+public class AlarmServiceTest {
+
+    @Autowired private AlarmService alarmService;
+    @Autowired private EmitterRepository emitterRepository;
+
+    @MockBean private AlarmPresenceRepository alarmPresenceRepository;
+    @MockBean private AlarmStreamRepository alarmStreamRepository;
+    // encoding 횟수 확인
+    @SpyBean private ObjectMapper objectMapper;
+
+    @Test
+    void 보낸_데이터가_없는_연결에_heartbeat를_전송하는_경우() throws InterruptedException {
+        Integer userId = 910001;
+        alarmService.connectAlarm(userId, null, SseEncoding.JSON);
+        SseConnection connection = emitterRepository.get(userId).iterator().next();
+        long connectedSentAt = connection.getLastSentAt();
+
+        // 만료(1초) 전에 heartbeat 전송으로 마지막 전송 시각이 바뀜
+        long deadline = System.currentTimeMillis() + 800L;
+        while(connection.getLastSentAt() == connectedSentAt && System.currentTimeMillis() < deadline){
+            Thread.sleep(20L);
+        }
+
+        Assertions.assertTrue(connection.getLastSentAt() > connectedSentAt);
+        Assertions.assertFalse(connection.isClosed());
+    }
+
+    @Test
+    void 최대_유지_시간이_지난_연결을_종료하는_경우() {
+        Integer userId = 910002;
+        alarmService.connectAlarm(userId, null, SseEncoding.JSON);
+        SseConnection connection = emitterRepository.get(userId).iterator().next();
+
+        verify(alarmPresenceRepository, timeout(3000)).unregister(userId);
+        Assertions.assertTrue(connection.isClosed());
+        Assertions.assertTrue(emitterRepository.get(userId).isEmpty());
+    }
+
+    @Test
+    void 알람을_encoding별로_한번씩만_만들어서_모든_연결에_전송하는_경우() throws Exception {
+        Integer userId = 910003;
+        List<SseConnection> jsonConnections = List.of(connect(userId, SseEncoding.JSON), connect(userId, SseEncoding.JSON));
+        List<SseConnection> compactConnections = List.of(connect(userId, SseEncoding.COMPACT), connect(userId, SseEncoding.COMPACT));
+        AlarmEvent event = new AlarmEvent(7, userId, AlarmType.NEW_LIKE_ON_POST,
+                new AlarmArgs(4, 10, 2, List.of(3, 4)), new Timestamp(1000L));
+
+        alarmService.send(event);
+
+        // JSON은 연결이 두 개여도 한 번만 직렬화
+        verify(objectMapper, times(1)).writeValueAsString(any());
+
+        Object json = payload(jsonConnections.get(0));
+        Assertions.assertSame(json, payload(jsonConnections.get(1)));
+        JsonNode node = objectMapper.readTree((String) json);
+        Assertions.assertEquals(7, node.get("id").asInt());
+        Assertions.assertEquals(AlarmType.NEW_LIKE_ON_POST.name(), node.get("alarmType").asText());
+
+        // COMPACT도 한 번 만든 같은 payload를 전송
+        Object compact = payload(compactConnections.get(0));
+        Assertions.assertSame(compact, payload(compactConnections.get(1)));
+        AlarmEvent read = new BinaryRedisSerializer<>(new AlarmEventBinaryCodec(), null)
+                .deserialize(Base64.getDecoder().decode((String) compact));
+        Assertions.assertEquals(7, read.getAlarmId());
+        Assertions.assertEquals(AlarmType.NEW_LIKE_ON_POST, read.getAlarmType());
+        Assertions.assertEquals(List.of(3, 4), read.getArgs().getSampleActorIds());
+
+        jsonConnections.forEach(emitterRepository::delete);
+        compactConnections.forEach(emitterRepository::delete);
+    }
+
+    @Test
+    void 내용이_없는_알람은_encoding과_관계없이_FALLBACK_DATA를_전송하는_경우() throws Exception {
+        Integer userId = 910004;
+        SseConnection jsonConnection = connect(userId, SseEncoding.JSON);
+        SseConnection compactConnection = connect(userId, SseEncoding.COMPACT);
+
+        alarmService.send(new AlarmEvent(8, userId));
+
+        verify(objectMapper, never()).writeValueAsString(any());
+        Assertions.assertEquals("new alarm", payload(jsonConnection));
+        Assertions.assertEquals("new alarm", payload(compactConnection));
+
+        emitterRepository.delete(jsonConnection);
+        emitterRepository.delete(compactConnection);
+    }
+
+    // 실제 전송 없이 보낸 event만 확인
+    private SseConnection connect(Integer userId, SseEncoding encoding){
+        return emitterRepository.save(new SseConnection(userId, mock(SseEmitter.class), encoding));
+    }
+
+    // data(payload)로 넣은 값 (id, event name 등은 text/plain으로 따로 들어감)
+    private Object payload(SseConnection connection) throws Exception {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(connection.getEmitter()).send(captor.capture());
+        return captor.getValue().build().stream()
+                .filter(it -> it.getMediaType() == null)
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .findFirst()
+                .orElseThrow();
+    }
+}
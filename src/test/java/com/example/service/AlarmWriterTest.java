@@ -0,0 +1,93 @@
+package com.example.service;
+
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmEvent;
+import com.example.model.AlarmType;
+import com.example.model.entity.AlarmEntity;
+import com.example.repository.AlarmEntityRepository;
+import com.example.repository.AlarmUnreadCountRepository;
+import com.example.repository.UserEntityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "sns.alarm.writer.retry-backoff-ms=10")
+public class AlarmWriterTest {
+
+    @Autowired private AlarmWriter alarmWriter;
+
+    @MockBean private AlarmEntityRepository alarmEntityRepository;
+    @MockBean private AlarmBroker alarmBroker;
+
+    @Test
+    void 알람이_저장된_후_전송되는_경우() {
+        AlarmEntity saved = new AlarmEntity();
+        saved.setId(1);
+        when(alarmEntityRepository.saveAll(any())).thenReturn(List.of(saved));
+
+        alarmWriter.enqueue(1, AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs(2, 10));
+
+        verify(alarmEntityRepository, timeout(1000)).saveAll(any());
+        verify(alarmBroker, timeout(1000)).publish(any(AlarmEvent.class));
+    }
+
+    @Test
+    void 저장에_실패한_알람을_재시도하는_경우() {
+        AlarmEntity saved = new AlarmEntity();
+        saved.setId(2);
+        when(alarmEntityRepository.saveAll(any()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(List.of(saved));
+
+        alarmWriter.enqueue(1, AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(2, 10));
+
+        // 첫 번째 실패 후 같은 batch로 다시 저장 -> 버리지 않고 전송
+        verify(alarmEntityRepository, timeout(2000).times(2)).saveAll(any());
+        verify(alarmBroker, timeout(2000)).publish(any(AlarmEvent.class));
+    }
+
+    @Test
+    void 종료할_때_저장_중이던_batch가_끝난_후_남은_알람을_저장하는_경우() throws InterruptedException {
+        // context의 writer는 다른 테스트에서 사용 -> 종료 테스트는 별도 writer로
+        AlarmEntityRepository repository = mock(AlarmEntityRepository.class);
+        AlarmBroker broker = mock(AlarmBroker.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        AlarmEntity saved = new AlarmEntity();
+        saved.setId(3);
+        // 첫 저장은 poll 주기(200ms)의 몇 배 동안 걸린 후 실패 -> 종료 요청 이후에 batch가 buffer로 돌아옴
+        when(repository.saveAll(any()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(1000L);
+                    throw new RuntimeException("lock wait timeout");
+                })
+                .thenReturn(List.of(saved));
+
+        AlarmWriter writer = new AlarmWriter(repository, mock(UserEntityRepository.class), broker,
+                mock(AlarmUnreadCountRepository.class), transactionTemplate, new SimpleMeterRegistry(),
+                50, 100, 200, 5, 10, 10000);
+        writer.enqueue(1, AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(2, 10));
+        verify(repository, timeout(1000)).saveAll(any());
+
+        writer.shutdown();
+
+        // shutdown이 끝난 시점에는 돌아온 batch까지 저장되어 있어야 함
+        verify(repository, times(2)).saveAll(any());
+        verify(broker).publish(any(AlarmEvent.class));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.model.LikeCountFlush;
+import com.example.repository.LikeCountCacheRepository;
+import com.example.repository.LikeCountFlushEntityRepository;
+import com.example.repository.PostEntityRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// scheduler가 테스트 중에 flush 하지 않도록 주기를 길게
+@SpringBootTest(properties = "sns.like-count.flush-interval-ms=3600000")
+public class LikeCountFlusherTest {
+
+    @Autowired private LikeCountFlusher likeCountFlusher;
+
+    @MockBean private LikeCountCacheRepository likeCountCacheRepository;
+    @MockBean private LikeCountFlushEntityRepository likeCountFlushEntityRepository;
+    @MockBean private PostEntityRepository postEntityRepository;
+
+    @Test
+    void 좋아요_증감분을_반영하는_경우() {
+        when(likeCountCacheRepository.tryFlushLock(any())).thenReturn(Optional.of("token"));
+        when(likeCountCacheRepository.drainPending()).thenReturn(Optional.of(new LikeCountFlush("flush-1", Map.of(1, 3L))));
+        when(likeCountFlushEntityRepository.insertIgnore("flush-1")).thenReturn(1);
+
+        likeCountFlusher.flush();
+
+        verify(postEntityRepository).increaseLikeCount(1, 3L);
+        verify(likeCountCacheRepository).completeFlush();
+        verify(likeCountCacheRepository).releaseFlushLock("token");
+    }
+
+    @Test
+    void 이미_반영된_flush는_다시_더하지_않는_경우() {
+        when(likeCountCacheRepository.tryFlushLock(any())).thenReturn(Optional.of("token"));
+        when(likeCountCacheRepository.drainPending()).thenReturn(Optional.of(new LikeCountFlush("flush-2", Map.of(1, 3L))));
+        // DB에는 반영되었지만 Redis에서 삭제하기 전에 실패한 flush
+        when(likeCountFlushEntityRepository.insertIgnore("flush-2")).thenReturn(0);
+
+        likeCountFlusher.flush();
+
+        verify(postEntityRepository, never()).increaseLikeCount(any(), any());
+        verify(likeCountCacheRepository).completeFlush();
+    }
+
+    @Test
+    void 다른_서버가_flush_중이면_보정하지_않는_경우() {
+        when(postEntityRepository.findIdsAfter(eq(0), any())).thenReturn(List.of(1, 2));
+        when(likeCountCacheRepository.tryFlushLock(any())).thenReturn(Optional.empty());
+
+        likeCountFlusher.reconcile();
+
+        verify(likeCountCacheRepository, never()).discardPending(any());
+        verify(postEntityRepository, never()).reconcileLikeCount(any());
+        verify(likeCountCacheRepository, never()).evictLikeCounts(any());
+    }
+
+    @Test
+    void 게시글을_chunk씩_보정하고_해당_chunk의_증감분과_cache만_비우는_경우() {
+        when(postEntityRepository.findIdsAfter(eq(0), any())).thenReturn(List.of(1, 2));
+        when(postEntityRepository.findIdsAfter(eq(2), any())).thenReturn(List.of(5));
+        when(postEntityRepository.findIdsAfter(eq(5), any())).thenReturn(List.of());
+        when(likeCountCacheRepository.tryFlushLock(any())).thenReturn(Optional.of("token"));
+        when(likeCountCacheRepository.drainPending()).thenReturn(Optional.empty());
+
+        likeCountFlusher.reconcile();
+
+        // chunk마다 lock 안에서 flush -> 남은 증감분 삭제 -> COUNT 보정 -> cache 삭제 순서
+        InOrder inOrder = inOrder(likeCountCacheRepository, postEntityRepository);
+        for(List<Integer> chunk : List.of(List.of(1, 2), List.of(5))){
+            inOrder.verify(likeCountCacheRepository).tryFlushLock(any());
+            inOrder.verify(likeCountCacheRepository).drainPending();
+            inOrder.verify(likeCountCacheRepository).discardPending(chunk);
+            inOrder.verify(postEntityRepository).reconcileLikeCount(chunk);
+            inOrder.verify(likeCountCacheRepository).evictLikeCounts(chunk);
+            inOrder.verify(likeCountCacheRepository).releaseFlushLock("token");
+        }
+        verify(postEntityRepository, never()).increaseLikeCount(any(), any());
+    }
+
+    @Test
+    void 보정_전에_쌓인_증감분은_먼저_반영하는_경우() {
+        when(postEntityRepository.findIdsAfter(eq(0), any())).thenReturn(List.of(1));
+        when(postEntityRepository.findIdsAfter(eq(1), any())).thenReturn(List.of());
+        when(likeCountCacheRepository.tryFlushLock(any())).thenReturn(Optional.of("token"));
+        when(likeCountCacheRepository.drainPending()).thenReturn(Optional.of(new LikeCountFlush("flush-3", Map.of(1, 1L))));
+        when(likeCountFlushEntityRepository.insertIgnore("flush-3")).thenReturn(1);
+
+        likeCountFlusher.reconcile();
+
+        // FLUSHING을 비운 후에 남은 증감분을 삭제
+        InOrder inOrder = inOrder(likeCountCacheRepository, postEntityRepository);
+        inOrder.verify(postEntityRepository).increaseLikeCount(1, 1L);
+        inOrder.verify(likeCountCacheRepository).completeFlush();
+        inOrder.verify(likeCountCacheRepository).discardPending(List.of(1));
+        inOrder.verify(postEntityRepository).reconcileLikeCount(List.of(1));
+    }
+
+    @Test
+    void 보정에_실패하면_버린_증감분을_되돌리는_경우() {
+        when(postEntityRepository.findIdsAfter(eq(0), any())).thenReturn(List.of(1, 2));
+        when(likeCountCacheRepository.tryFlushLock(any())).thenReturn(Optional.of("token"));
+        when(likeCountCacheRepository.drainPending()).thenReturn(Optional.empty());
+        when(likeCountCacheRepository.discardPending(List.of(1, 2))).thenReturn(Map.of(1, 2L));
+        when(postEntityRepository.reconcileLikeCount(List.of(1, 2))).thenThrow(new RuntimeException("lock wait timeout"));
+
+        likeCountFlusher.reconcile();
+
+        verify(likeCountCacheRepository).restorePending(Map.of(1, 2L));
+        verify(likeCountCacheRepository, never()).evictLikeCounts(any());
+        verify(likeCountCacheRepository).releaseFlushLock("token");
+        // 이후 chunk는 진행하지 않음
+        verify(postEntityRepository, never()).findIdsAfter(eq(2), any());
+    }
+}
@@ -4,11 +4,14 @@ import com.example.exception.ErrorCode;
 import com.example.exception.SnsApplicationException;
 import com.example.fixture.PostEntityFixture;
 import com.example.fixture.UserEntityFixture;
+import com.example.model.Post;
+import com.example.model.PostCount;
+import com.example.model.PostEngagement;
 import com.example.model.entity.CommentEntity;
-import com.example.model.entity.LikeEntity;
 import com.example.model.entity.PostEntity;
 import com.example.model.entity.UserEntity;
 import com.example.repository.CommentEntityRepository;
+import com.example.repository.LikeCountCacheRepository;
 import com.example.repository.LikeEntityRepository;
 import com.example.repository.PostEntityRepository;
 import com.example.repository.UserEntityRepository;
@@ -19,17 +22,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
 public class PostServiceTest {
 
     @Autowired PostService postService;
+    @Autowired TransactionTemplate transactionTemplate;
 
     @MockBean
     private PostEntityRepository postEntityRepository;
@@ -43,6 +54,9 @@ public class PostServiceTest {
     @MockBean
     private CommentEntityRepository commentEntityRepository;
 
+    @MockBean
+    private LikeCountCacheRepository likeCountCacheRepository;
+
     @Test
     void 포스트작성이_정상적인_경우(){
         String title="title";
@@ -170,7 +184,7 @@ public class PostServiceTest {
     @Test
     void 게시글목록_요청이_정상적인_경우(){
         Pageable pageable = mock(Pageable.class);
-        when(postEntityRepository.findAll(pageable)).thenReturn(Page.empty());
+        when(postEntityRepository.findAllPosts(pageable)).thenReturn(Page.empty());
 
         Assertions.assertDoesNotThrow(() -> postService.list(pageable));
     }
@@ -180,23 +194,83 @@ public class PostServiceTest {
         Pageable pageable = mock(Pageable.class);
         UserEntity userEntity = mock(UserEntity.class);
         when(userEntityRepository.findByUsername(any())).thenReturn(Optional.of(userEntity));
-        when(postEntityRepository.findAllByUser(userEntity, pageable)).thenReturn(Page.empty());
+        when(postEntityRepository.findAllPostsByUserId(userEntity.getId(), pageable)).thenReturn(Page.empty());
 
         Assertions.assertDoesNotThrow(() -> postService.my("",pageable));
     }
 
+    @Test
+    void 게시글목록_커서_페이징_요청이_정상적인_경우(){
+        Pageable pageable = mock(Pageable.class);
+        when(postEntityRepository.findAllPostsByCursor(Integer.MAX_VALUE, pageable)).thenReturn(new SliceImpl<>(List.of()));
+
+        Assertions.assertDoesNotThrow(() -> postService.listByCursor(Integer.MAX_VALUE, pageable));
+    }
+
+    @Test
+    void 나의_게시글목록_커서_페이징시_유저가_존재하지_않는_경우(){
+        Pageable pageable = mock(Pageable.class);
+        when(userEntityRepository.findByUsername(any())).thenReturn(Optional.empty());
+
+        SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.myByCursor("", Integer.MAX_VALUE, pageable));
+        Assertions.assertEquals(ErrorCode.USER_NOT_FOUND, e.getErrorCode());
+    }
+
+    @Test
+    void 게시글목록의_좋아요수_댓글수_조회(){
+        String userName = "userName";
+        PostEntity first = PostEntityFixture.get(userName, 1, 1);
+        PostEntity second = PostEntityFixture.get(userName, 2, 1);
+        first.setLikeCount(3L);
+        List<Post> posts = List.of(Post.fromEntity(first), Post.fromEntity(second));
+
+        when(commentEntityRepository.countAllByPostIds(List.of(1, 2))).thenReturn(List.of(new PostCount(1, 5L)));
+        when(likeCountCacheRepository.getPendingDeltas(List.of(1, 2))).thenReturn(Map.of(1, 1L, 2, 0L));
+        when(likeEntityRepository.findLikedPostIds(userName, List.of(1, 2))).thenReturn(List.of(2));
+
+        Map<Integer, PostEngagement> engagements = postService.getEngagements(posts, userName);
+
+        Assertions.assertEquals(4L, engagements.get(1).getLikeCount());
+        Assertions.assertEquals(5L, engagements.get(1).getCommentCount());
+        Assertions.assertFalse(engagements.get(1).getLikedByMe());
+        Assertions.assertEquals(0L, engagements.get(2).getLikeCount());
+        Assertions.assertEquals(0L, engagements.get(2).getCommentCount());
+        Assertions.assertTrue(engagements.get(2).getLikedByMe());
+    }
+
     @Test
     void 좋아요가_성공한_경우(){
         Integer postId = 1;
         String username = "username";
-        UserEntity user = mock(UserEntity.class);
-        PostEntity post = mock(PostEntity.class);
+        UserEntity user = UserEntityFixture.get(username, "", 1);
+        // 알람을 받는 게시글 작성자가 있어야 함
+        PostEntity post = PostEntityFixture.get("writer", postId, 2);
 
         when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(user));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(likeEntityRepository.findByUserAndPost(user,post)).thenReturn(Optional.empty());
+        when(likeEntityRepository.insertIgnore(any(), any())).thenReturn(1);
 
         Assertions.assertDoesNotThrow(() -> postService.like(postId,username));
+        // commit 이후에 증가
+        verify(likeCountCacheRepository).increase(postId, 1);
+    }
+
+    @Test
+    void 좋아요_transaction이_rollback된_경우_좋아요수를_바꾸지_않음(){
+        Integer postId = 1;
+        String username = "username";
+        UserEntity user = UserEntityFixture.get(username, "", 1);
+        PostEntity post = PostEntityFixture.get("writer", postId, 2);
+
+        when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(likeEntityRepository.insertIgnore(any(), any())).thenReturn(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postService.like(postId, username);
+            status.setRollbackOnly();
+        });
+        verify(likeCountCacheRepository, never()).increase(any(), anyLong());
     }
 
     @Test
@@ -208,7 +282,6 @@ public class PostServiceTest {
 
         when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(user));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.empty());
-        when(likeEntityRepository.findByUserAndPost(user,post)).thenReturn(Optional.empty());
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.like(postId,username));
         Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
@@ -220,14 +293,75 @@ public class PostServiceTest {
         String username = "username";
         UserEntity user = mock(UserEntity.class);
         PostEntity post = mock(PostEntity.class);
-        LikeEntity like = mock(LikeEntity.class);
 
         when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(user));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(likeEntityRepository.findByUserAndPost(user,post)).thenReturn(Optional.of(like));
+        when(likeEntityRepository.insertIgnore(any(), any())).thenReturn(0);
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.like(postId,username));
         Assertions.assertEquals(ErrorCode.ALREADY_LIKE, e.getErrorCode());
+        verify(likeCountCacheRepository, never()).increase(any(), anyLong());
+    }
+
+    @Test
+    void 좋아요취소가_성공한_경우(){
+        Integer postId = 1;
+        String username = "username";
+        UserEntity user = UserEntityFixture.get(username, "", 1);
+
+        when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(likeEntityRepository.deleteByUserIdAndPostId(user.getId(), postId)).thenReturn(1);
+
+        Assertions.assertDoesNotThrow(() -> postService.unlike(postId, username));
+        verify(likeCountCacheRepository).increase(postId, -1);
+    }
+
+    @Test
+    void 좋아요취소시_좋아요를_누르지_않은_경우(){
+        Integer postId = 1;
+        String username = "username";
+        UserEntity user = UserEntityFixture.get(username, "", 1);
+
+        when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(likeEntityRepository.deleteByUserIdAndPostId(user.getId(), postId)).thenReturn(0);
+
+        Assertions.assertDoesNotThrow(() -> postService.unlike(postId, username));
+        verify(likeCountCacheRepository, never()).increase(any(), anyLong());
+    }
+
+    @Test
+    void 좋아요수_조회시_캐시된_값이_있는_경우(){
+        Integer postId = 1;
+
+        when(likeCountCacheRepository.getLikeCount(postId)).thenReturn(Optional.of(3L));
+
+        Assertions.assertEquals(3L, postService.likeCount(postId));
+        verify(postEntityRepository, never()).findById(postId);
+    }
+
+    @Test
+    void 좋아요수_조회시_캐시된_값이_없는_경우(){
+        Integer postId = 1;
+        PostEntity post = PostEntityFixture.get("userName", postId, 1);
+        post.setLikeCount(3L);
+
+        when(likeCountCacheRepository.getLikeCount(postId)).thenReturn(Optional.empty());
+        when(likeCountCacheRepository.getPendingDelta(postId)).thenReturn(2L);
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(post));
+
+        Assertions.assertEquals(5L, postService.likeCount(postId));
+        verify(likeCountCacheRepository).setLikeCount(postId, 5L);
+    }
+
+    @Test
+    void 좋아요수_조회시_포스트가_존재하지_않는_경우(){
+        Integer postId = 1;
+
+        when(likeCountCacheRepository.getLikeCount(postId)).thenReturn(Optional.empty());
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.empty());
+
+        SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.likeCount(postId));
+        Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
     }
 
     @Test
@@ -276,13 +410,23 @@ public class PostServiceTest {
     @Test
     void 댓글목록_요청시_성공한_경우(){
         Integer postId = 1;
-        PostEntity post = mock(PostEntity.class);
         Pageable pageable = mock(Pageable.class);
 
-        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(commentEntityRepository.findAllByPost(post,pageable)).thenReturn(Page.empty());
+        when(postEntityRepository.existsById(postId)).thenReturn(true);
+        when(commentEntityRepository.findAllCommentsByPostId(postId, pageable)).thenReturn(Page.empty());
 
         Assertions.assertDoesNotThrow(() -> postService.getComments(postId, pageable));
     }
 
+    @Test
+    void 댓글목록_요청시_포스트가_존재하지_않는_경우(){
+        Integer postId = 1;
+        Pageable pageable = mock(Pageable.class);
+
+        when(postEntityRepository.existsById(postId)).thenReturn(false);
+
+        SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.getComments(postId, pageable));
+        Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
+    }
+
 }
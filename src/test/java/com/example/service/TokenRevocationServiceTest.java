@@ -0,0 +1,85 @@
+package com.example.service;
+
+import com.example.repository.TokenVersionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TokenRevocationServiceTest {
+
+    private final TokenVersionRepository tokenVersionRepository = mock(TokenVersionRepository.class);
+    private final TokenRevocationService tokenRevocationService = new TokenRevocationService(
+            tokenVersionRepository, mock(RedisMessageListenerContainer.class), 1000L, 1 << 16, 5);
+
+    @Test
+    void 첫_동기화_전에는_Redis로_확인하는_경우() {
+        when(tokenVersionRepository.isRevoked(1, 0L)).thenReturn(false);
+
+        Assertions.assertFalse(tokenRevocationService.isRevoked(1, 0L));
+        verify(tokenVersionRepository).isRevoked(1, 0L);
+    }
+
+    @Test
+    void 동기화_후_filter에_없는_token은_Redis를_조회하지_않는_경우() {
+        when(tokenVersionRepository.findAllRevoked()).thenReturn(Set.of(TokenVersionRepository.getMember(1, 0L)));
+        tokenRevocationService.sync();
+
+        Assertions.assertFalse(tokenRevocationService.isRevoked(2, 0L));
+        Assertions.assertFalse(tokenRevocationService.isRevoked(1, 1L));
+        verify(tokenVersionRepository, never()).isRevoked(anyInt(), anyLong());
+    }
+
+    @Test
+    void 동기화_후_filter에_있는_token은_Redis로_확인하는_경우() {
+        when(tokenVersionRepository.findAllRevoked()).thenReturn(Set.of(TokenVersionRepository.getMember(1, 0L)));
+        when(tokenVersionRepository.isRevoked(1, 0L)).thenReturn(true);
+        tokenRevocationService.sync();
+
+        Assertions.assertTrue(tokenRevocationService.isRevoked(1, 0L));
+        verify(tokenVersionRepository).isRevoked(1, 0L);
+    }
+
+    @Test
+    void 동기화_중에_받은_폐기_메시지가_새_filter에_남는_경우() {
+        String member = TokenVersionRepository.getMember(7, 3L);
+        // 폐기 목록을 읽는 사이에 pub/sub으로 폐기 메시지가 도착 -> 읽어온 목록에는 아직 없음
+        when(tokenVersionRepository.findAllRevoked()).thenAnswer(invocation -> {
+            tokenRevocationService.onMessage(message(member), null);
+            return Set.of(TokenVersionRepository.getMember(1, 0L));
+        });
+        when(tokenVersionRepository.isRevoked(7, 3L)).thenReturn(true);
+
+        tokenRevocationService.sync();
+
+        Assertions.assertTrue(tokenRevocationService.isRevoked(7, 3L));
+        verify(tokenVersionRepository).isRevoked(7, 3L);
+    }
+
+    @Test
+    void 동기화가_실패하면_계속_Redis로_확인하는_경우() {
+        when(tokenVersionRepository.findAllRevoked()).thenThrow(new RuntimeException("redis down"));
+        when(tokenVersionRepository.isRevoked(2, 0L)).thenReturn(false);
+
+        tokenRevocationService.sync();
+
+        Assertions.assertFalse(tokenRevocationService.isRevoked(2, 0L));
+        verify(tokenVersionRepository).isRevoked(2, 0L);
+    }
+
+    private Message message(String body){
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+        return message;
+    }
+}
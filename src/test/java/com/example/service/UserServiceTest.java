@@ -3,33 +3,70 @@ package com.example.service;
 import com.example.exception.ErrorCode;
 import com.example.exception.SnsApplicationException;
 import com.example.fixture.UserEntityFixture;
+import com.example.model.Alarm;
+import com.example.model.AlarmArgs;
+import com.example.model.AlarmDetail;
+import com.example.model.AlarmType;
+import com.example.model.PostTitle;
+import com.example.model.TimeCursor;
+import com.example.model.User;
 import com.example.model.entity.UserEntity;
 import com.example.repository.AlarmEntityRepository;
+import com.example.repository.AlarmUnreadCountRepository;
+import com.example.repository.PostEntityRepository;
+import com.example.repository.PostTitleCacheRepository;
+import com.example.repository.UserCacheRepository;
 import com.example.repository.UserEntityRepository;
+import com.example.utils.CursorUtils;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
 public class UserServiceTest {
 
     @Autowired private UserService userService;
-
+    @Autowired private TransactionTemplate transactionTemplate;
 
     @MockBean private UserEntityRepository userEntityRepository;
     @MockBean private BCryptPasswordEncoder encoder;
     @MockBean private AlarmEntityRepository alarmEntityRepository;
+    @MockBean private TokenRevocationService tokenRevocationService;
+    @MockBean private AlarmUnreadCountRepository alarmUnreadCountRepository;
+    @MockBean private PostEntityRepository postEntityRepository;
+    @MockBean private UserCacheRepository userCacheRepository;
+    @MockBean private PostTitleCacheRepository postTitleCacheRepository;
+
+    // user cache는 항상 miss -> loader(DB)로 조회
+    @BeforeEach
+    void setUp() {
+        when(userCacheRepository.getUser(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Function<String, User>>getArgument(1).apply(invocation.getArgument(0)));
+    }
 
     @Test
     void 회원가입이_정상적으로_동작하는_경우() {
@@ -106,8 +143,145 @@ public class UserServiceTest {
         UserEntity user = UserEntityFixture.get(username, "", 1);
         Pageable pageable = mock(Pageable.class);
 
-        when(alarmEntityRepository.findAllByUserId(user.getId(), pageable)).thenReturn(Page.empty());
+        when(alarmEntityRepository.findAllByUserId(eq(user.getId()), any(), eq(pageable))).thenReturn(Page.empty());
 
         Assertions.assertDoesNotThrow(()-> userService.alarmList(user.getId(), pageable));
     }
+
+    @Test
+    void 알람목록_커서_페이징_요청시_성공하는_경우(){
+        Integer userId = 1;
+        Pageable pageable = mock(Pageable.class);
+
+        TimeCursor cursor = CursorUtils.decodeTime(null);
+
+        when(alarmEntityRepository.findAllByUserIdAndCursor(eq(userId), eq(cursor.getRegisteredAt()), eq(Integer.MAX_VALUE), any(), eq(pageable))).thenReturn(new SliceImpl<>(List.of()));
+
+        Assertions.assertDoesNotThrow(()-> userService.alarmListByCursor(userId, cursor, pageable));
+    }
+
+    @Test
+    void 로그인시_저장된_비밀번호의_cost가_낮으면_다시_저장하는_경우() {
+        String username = "username";
+        String password = "password";
+
+        UserEntity fixture = UserEntityFixture.get(username, password, 1);
+
+        // mocking
+        when(userEntityRepository.findByUsername(username)).thenReturn(Optional.of(fixture));
+        when(encoder.matches(password, fixture.getPassword())).thenReturn(true);
+        when(encoder.upgradeEncoding(fixture.getPassword())).thenReturn(true);
+        when(encoder.encode(password)).thenReturn("upgraded_password");
+        when(userEntityRepository.save(any())).thenReturn(fixture);
+
+        Assertions.assertDoesNotThrow(() -> userService.login(username, password));
+        verify(userEntityRepository).save(any());
+    }
+
+    @Test
+    void 여러_유저를_한번에_조회하는_경우() {
+        UserEntity first = UserEntityFixture.get("batch_user1", "password", 101);
+        UserEntity second = UserEntityFixture.get("batch_user2", "password", 102);
+
+        when(userEntityRepository.findAllByUsernameIn(any())).thenReturn(List.of(first, second));
+
+        Map<String, User> users = userService.loadUsersByUserNames(List.of("batch_user1", "batch_user2", "batch_user1"));
+        Assertions.assertEquals(2, users.size());
+        Assertions.assertEquals(101, users.get("batch_user1").getId());
+    }
+
+    @Test
+    void 알람목록의_보낸사람과_게시글_제목을_한번에_조회하는_경우() {
+        User cached = User.fromEntity(UserEntityFixture.get("alarm_actor1", "password", 201));
+        UserEntity missed = UserEntityFixture.get("alarm_actor2", "password", 202);
+        List<Alarm> alarms = List.of(
+                new Alarm(1, AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(202, 11, 2, List.of(201, 202)), null, null, null, null),
+                new Alarm(2, AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs(201, 12), null, null, null, null)
+        );
+
+        // 201번 user, 11번 게시글 제목은 cache에 있음
+        when(userCacheRepository.getUsersByIds(any())).thenReturn(new HashMap<>(Map.of(201, cached)));
+        when(userEntityRepository.findAllById(List.of(202))).thenReturn(List.of(missed));
+        when(postTitleCacheRepository.getTitles(any())).thenReturn(new HashMap<>(Map.of(11, "title")));
+        when(postEntityRepository.findAllTitlesByIds(List.of(12))).thenReturn(List.of(new PostTitle(12, "a".repeat(40))));
+
+        Map<Integer, AlarmDetail> details = userService.getAlarmDetails(alarms);
+        Assertions.assertEquals("alarm_actor2", details.get(1).getFromUserName());
+        Assertions.assertEquals(List.of("alarm_actor1", "alarm_actor2"), details.get(1).getSampleActorNames());
+        Assertions.assertEquals("title", details.get(1).getTargetTitle());
+        Assertions.assertEquals("a".repeat(30) + "...", details.get(2).getTargetTitle());
+
+        // 알람 개수와 상관없이 cache에 없는 user, 게시글만 한 번씩 조회하고 cache에 저장
+        verify(userEntityRepository).findAllById(List.of(202));
+        verify(userCacheRepository).setUsers(argThat(users -> users.size() == 1));
+        verify(postEntityRepository).findAllTitlesByIds(List.of(12));
+        verify(postTitleCacheRepository).setTitles(argThat(titles -> titles.size() == 1));
+    }
+
+    @Test
+    void 읽지_않은_알람수가_캐시에_없는_경우() {
+        Integer userId = 1;
+
+        when(alarmUnreadCountRepository.getUnreadCount(userId)).thenReturn(Optional.empty());
+        when(alarmEntityRepository.countUnreadByUserId(eq(userId), any())).thenReturn(3L);
+
+        Assertions.assertEquals(3L, userService.unreadAlarmCount(userId));
+        verify(alarmUnreadCountRepository).setUnreadCount(userId, 3L);
+    }
+
+    @Test
+    void 알람을_모두_읽음_처리하는_경우() {
+        Integer userId = 1;
+
+        when(alarmEntityRepository.markAllRead(any(), any(), any())).thenReturn(5);
+
+        Assertions.assertEquals(5, userService.readAlarms(userId, null));
+        verify(alarmUnreadCountRepository).reset(userId);
+    }
+
+    @Test
+    void 선택한_알람만_읽음_처리하는_경우() {
+        Integer userId = 1;
+        List<Integer> alarmIds = List.of(10, 11, 12);
+
+        // 이미 읽은 알람은 제외하고 변경된 row 수만큼만 감소
+        when(alarmEntityRepository.markRead(eq(userId), eq(alarmIds), any())).thenReturn(2);
+
+        Assertions.assertEquals(2, userService.readAlarms(userId, alarmIds));
+        verify(alarmUnreadCountRepository).increase(userId, -2);
+        verify(alarmUnreadCountRepository, never()).reset(any());
+    }
+
+    @Test
+    void 선택한_알람이_모두_읽은_알람인_경우() {
+        Integer userId = 1;
+        List<Integer> alarmIds = List.of(10);
+
+        when(alarmEntityRepository.markRead(eq(userId), eq(alarmIds), any())).thenReturn(0);
+
+        Assertions.assertEquals(0, userService.readAlarms(userId, alarmIds));
+        verify(alarmUnreadCountRepository, never()).increase(any(), anyLong());
+    }
+
+    @Test
+    void 읽음_처리_transaction이_rollback된_경우_읽지_않은_알람수를_바꾸지_않음() {
+        Integer userId = 1;
+
+        when(alarmEntityRepository.markAllRead(any(), any(), any())).thenReturn(5);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.readAlarms(userId, null);
+            status.setRollbackOnly();
+        });
+
+        verify(alarmUnreadCountRepository, never()).reset(any());
+    }
+
+    @Test
+    void 토큰_폐기_요청시_성공하는_경우(){
+        Integer userId = 1;
+
+        Assertions.assertDoesNotThrow(()-> userService.revokeTokens(userId));
+        verify(tokenRevocationService).revoke(userId);
+    }
 }
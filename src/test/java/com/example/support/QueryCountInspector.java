@@ -0,0 +1,26 @@
+package com.example.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// hibernate가 실행하는 SQL 개수를 thread 별로 센다
+// spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록
+public class QueryCountInspector implements StatementInspector {
+
+    private final static ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    public static void reset(){
+        COUNT.get().set(0);
+    }
+
+    public static int count(){
+        return COUNT.get().get();
+    }
+}
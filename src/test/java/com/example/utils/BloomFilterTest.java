@@ -0,0 +1,56 @@
+package com.example.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    private static final int BITS = 10_000;
+    private static final int HASHES = 5;
+    private static final int MEMBERS = 1_000;
+
+    @Test
+    void 추가한_값은_항상_포함된_것으로_나오는_경우() {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+        for(int i = 0; i < MEMBERS; i++){
+            filter.put(i + ":0");
+        }
+
+        // false negative는 없어야 함
+        for(int i = 0; i < MEMBERS; i++){
+            Assertions.assertTrue(filter.mightContain(i + ":0"));
+        }
+    }
+
+    @Test
+    void false_positive_비율이_예상_범위_안에_있는_경우() {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+        for(int i = 0; i < MEMBERS; i++){
+            filter.put(i + ":0");
+        }
+
+        int falsePositives = 0;
+        int trials = 100_000;
+        for(int i = 0; i < trials; i++){
+            // 같은 userId의 다른 version, 다른 userId 모두 섞어서 확인
+            String member = (i % 2 == 0) ? (MEMBERS + i) + ":0" : i + ":1";
+            if(filter.mightContain(member)){
+                falsePositives++;
+            }
+        }
+
+        // 이론값 (1 - e^(-kn/m))^k -> 10000 bit, 5 hash, 1000개 기준 약 0.94%
+        double expected = Math.pow(1 - Math.exp(-(double) HASHES * MEMBERS / BITS), HASHES);
+        double rate = (double) falsePositives / trials;
+        Assertions.assertTrue(rate < expected * 2, "false positive rate " + rate + " expected about " + expected);
+    }
+
+    @Test
+    void 비어있는_filter는_아무것도_포함하지_않는_경우() {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+
+        for(int i = 0; i < MEMBERS; i++){
+            Assertions.assertFalse(filter.mightContain(i + ":0"));
+        }
+    }
+}
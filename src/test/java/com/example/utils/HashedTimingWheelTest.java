@@ -0,0 +1,97 @@
+package com.example.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HashedTimingWheelTest {
+
+    @Test
+    void 등록한_시간이_지나면_한번만_실행되는_경우() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-wheel", 10L, 8, it -> {
+            count.incrementAndGet();
+            latch.countDown();
+        });
+
+        long start = System.currentTimeMillis();
+        wheel.schedule(1, 50L);
+
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 50L);
+        Thread.sleep(100L);
+        Assertions.assertEquals(1, count.get());
+        wheel.stop();
+    }
+
+    @Test
+    void wheel_크기보다_긴_시간은_다음_바퀴에서_실행되는_경우() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        // 8칸 * 10ms = 80ms 한 바퀴 -> 250ms는 같은 bucket을 여러 번 지나침
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-wheel", 10L, 8, it -> latch.countDown());
+
+        long start = System.currentTimeMillis();
+        wheel.schedule(1, 250L);
+
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 250L);
+        wheel.stop();
+    }
+
+    @Test
+    void 먼저_만료되는_timer부터_실행되는_경우() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-wheel", 10L, 8, it -> {
+            fired.add(it);
+            latch.countDown();
+        });
+
+        wheel.schedule(3, 150L);
+        wheel.schedule(1, 20L);
+        wheel.schedule(2, 80L);
+
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(1, 2, 3), fired);
+        wheel.stop();
+    }
+
+    @Test
+    void handler에서_예외가_발생해도_다른_timer가_실행되는_경우() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-wheel", 10L, 8, it -> {
+            if(it == 1){
+                throw new IllegalStateException("fail");
+            }
+            latch.countDown();
+        });
+
+        wheel.schedule(1, 10L);
+        wheel.schedule(2, 50L);
+
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        wheel.stop();
+    }
+
+    @Test
+    void handler에서_다시_등록해서_반복_실행되는_경우() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicReference<HashedTimingWheel<Integer>> wheel = new AtomicReference<>();
+        wheel.set(new HashedTimingWheel<>("test-wheel", 10L, 8, it -> {
+            latch.countDown();
+            wheel.get().schedule(it, 20L);
+        }));
+
+        wheel.get().schedule(1, 20L);
+
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        wheel.get().stop();
+    }
+}